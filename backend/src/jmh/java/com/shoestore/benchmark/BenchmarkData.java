@@ -0,0 +1,74 @@
+package com.shoestore.benchmark;
+
+import com.shoestore.entity.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entities shaped like the seeded catalogue, and access to the private mapping methods
+ * the benchmarks measure.
+ */
+final class BenchmarkData {
+    
+    private static final String[] BRANDS = {"Nike", "Adidas", "Puma", "Reebok", "New Balance", "Asics"};
+    private static final String[] MODELS = {"Runner", "Court", "Trail", "Classic", "Boost", "Glide"};
+    
+    private BenchmarkData() {}
+    
+    static List<Product> products(int count) {
+        Category[] categories = Category.values();
+        Gender[] genders = Gender.values();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName(BRANDS[i % BRANDS.length] + " " + MODELS[i % MODELS.length] + " " + i);
+            product.setDescription("Lightweight " + MODELS[i % MODELS.length].toLowerCase()
+                    + " shoe with a cushioned sole and breathable mesh upper, model " + i);
+            product.setPrice(BigDecimal.valueOf(2999 + (i % 50) * 100L, 2));
+            product.setStockQuantity(10 + i % 90);
+            product.setBrand(BRANDS[i % BRANDS.length]);
+            product.setCategory(categories[i % categories.length]);
+            product.setGender(genders[i % genders.length]);
+            product.setImageUrls(new ArrayList<>(List.of(
+                    "https://images.example.com/products/" + i + "/front.jpg",
+                    "https://images.example.com/products/" + i + "/side.jpg")));
+            product.setColor("Black");
+            product.setSize("9");
+            product.setMaterial("Mesh");
+            product.setIsActive(true);
+            products.add(product);
+        }
+        return products;
+    }
+    
+    static Order order(long id, List<Product> products) {
+        Order order = new Order(null, BigDecimal.ZERO, "1 Benchmark Street", "Pune", "MH", "411001", "India");
+        order.setId(id);
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setOrderItems(new ArrayList<>());
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            OrderItem item = new OrderItem(order, product, 1 + i % 3, product.getPrice());
+            item.setId(id * 100 + i);
+            order.getOrderItems().add(item);
+            total = total.add(product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        order.setTotalAmount(total);
+        order.setOrderDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return order;
+    }
+    
+    static MethodHandle privateMethod(Class<?> owner, String name, Class<?> returnType, Class<?>... parameterTypes)
+            throws ReflectiveOperationException {
+        return MethodHandles.privateLookupIn(owner, MethodHandles.lookup())
+                .findVirtual(owner, name, MethodType.methodType(returnType, parameterTypes));
+    }
+}
@@ -0,0 +1,97 @@
+package com.shoestore.benchmark;
+
+import com.shoestore.dto.OrderDto;
+import com.shoestore.dto.OrderItemDto;
+import com.shoestore.dto.ProductDto;
+import com.shoestore.entity.Order;
+import com.shoestore.entity.OrderItem;
+import com.shoestore.entity.Product;
+import com.shoestore.service.OrderService;
+import com.shoestore.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping over loaded entities, with no database: {@code ProductService.convertToDto}
+ * over a product listing, {@code OrderService.convertOrderItemToDto} over order lines and
+ * {@code OrderService.convertToDto} over orders of ten lines.
+ *
+ * <p>Run with {@code mvn -Pbenchmark package exec:exec -Djmh.includes=DtoMappingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+    
+    @Param({"100", "1000", "10000"})
+    private int size;
+    
+    private ProductService productService;
+    private OrderService orderService;
+    private MethodHandle productToDto;
+    private MethodHandle orderItemToDto;
+    private MethodHandle orderToDto;
+    
+    private List<Product> products;
+    private List<OrderItem> orderItems;
+    private List<Order> orders;
+    
+    @Setup
+    public void setUp() throws Throwable {
+        // The mapping methods only read their argument, so unwired services are enough
+        productService = new ProductService();
+        orderService = new OrderService();
+        productToDto = BenchmarkData.privateMethod(ProductService.class, "convertToDto", ProductDto.class, Product.class);
+        orderItemToDto = BenchmarkData.privateMethod(OrderService.class, "convertOrderItemToDto", OrderItemDto.class, OrderItem.class);
+        orderToDto = BenchmarkData.privateMethod(OrderService.class, "convertToDto", OrderDto.class, Order.class);
+        
+        products = BenchmarkData.products(size);
+        orders = new ArrayList<>();
+        orderItems = new ArrayList<>();
+        for (int i = 0; i + 10 <= size; i += 10) {
+            Order order = BenchmarkData.order(i / 10 + 1, products.subList(i, i + 10));
+            orders.add(order);
+            orderItems.addAll(order.getOrderItems());
+        }
+        
+        if (productListing().size() != size || orderLines().size() != orderItems.size()
+                || orderHistory().get(0).getOrderItems().size() != 10
+                || !products.get(0).getName().equals(productListing().get(0).getName())) {
+            throw new IllegalStateException("Mapping produced unexpected DTOs");
+        }
+    }
+    
+    @Benchmark
+    public List<ProductDto> productListing() throws Throwable {
+        List<ProductDto> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            dtos.add((ProductDto) productToDto.invokeExact(productService, product));
+        }
+        return dtos;
+    }
+    
+    @Benchmark
+    public List<OrderItemDto> orderLines() throws Throwable {
+        List<OrderItemDto> dtos = new ArrayList<>(orderItems.size());
+        for (OrderItem orderItem : orderItems) {
+            dtos.add((OrderItemDto) orderItemToDto.invokeExact(orderService, orderItem));
+        }
+        return dtos;
+    }
+    
+    @Benchmark
+    public List<OrderDto> orderHistory() throws Throwable {
+        List<OrderDto> dtos = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            dtos.add((OrderDto) orderToDto.invokeExact(orderService, order));
+        }
+        return dtos;
+    }
+}
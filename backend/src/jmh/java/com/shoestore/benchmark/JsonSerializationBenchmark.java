@@ -0,0 +1,76 @@
+package com.shoestore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shoestore.dto.OrderDto;
+import com.shoestore.dto.ProductDto;
+import com.shoestore.entity.Order;
+import com.shoestore.entity.Product;
+import com.shoestore.service.OrderService;
+import com.shoestore.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies for product listings and order history, using an
+ * {@link ObjectMapper} configured the way Spring MVC builds its own.
+ *
+ * <p>Run with {@code mvn -Pbenchmark package exec:exec -Djmh.includes=JsonSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    
+    @Param({"100", "1000"})
+    private int size;
+    
+    private ObjectWriter writer;
+    private List<ProductDto> products;
+    private List<OrderDto> orders;
+    
+    @Setup
+    public void setUp() throws Throwable {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        
+        MethodHandle productToDto = BenchmarkData.privateMethod(ProductService.class, "convertToDto", ProductDto.class, Product.class);
+        MethodHandle orderToDto = BenchmarkData.privateMethod(OrderService.class, "convertToDto", OrderDto.class, Order.class);
+        ProductService productService = new ProductService();
+        OrderService orderService = new OrderService();
+        
+        List<Product> entities = BenchmarkData.products(size);
+        products = new ArrayList<>(size);
+        for (Product product : entities) {
+            products.add((ProductDto) productToDto.invokeExact(productService, product));
+        }
+        orders = new ArrayList<>();
+        for (int i = 0; i + 10 <= size; i += 10) {
+            orders.add((OrderDto) orderToDto.invokeExact(orderService, BenchmarkData.order(i / 10 + 1, entities.subList(i, i + 10))));
+        }
+        
+        // Round-trip once so a serialization failure surfaces here rather than as a fast error path
+        if (objectMapper.readTree(productListing()).size() != size
+                || objectMapper.readTree(orderHistory()).size() != orders.size()) {
+            throw new IllegalStateException("Serialized lists have the wrong size");
+        }
+    }
+    
+    @Benchmark
+    public byte[] productListing() throws Exception {
+        return writer.writeValueAsBytes(products);
+    }
+    
+    @Benchmark
+    public byte[] orderHistory() throws Exception {
+        return writer.writeValueAsBytes(orders);
+    }
+}
@@ -0,0 +1,97 @@
+package com.shoestore.benchmark;
+
+import com.shoestore.entity.Role;
+import com.shoestore.entity.User;
+import com.shoestore.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling cost of one authenticated request, before and after the parse-once cache.
+ *
+ * <p>{@code legacyFilter} reproduces the old filter path: {@code extractUsername} followed by
+ * {@code validateToken}, which rebuilt the key and parser and verified the token three times.
+ *
+ * <p>Run with {@code mvn -Pbenchmark package exec:exec -Djmh.includes=JwtFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+    
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+    
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+    
+    @Setup
+    public void setUp() throws Exception {
+        cachedJwtUtil = newJwtUtil(10000);
+        uncachedJwtUtil = newJwtUtil(0);
+        
+        User user = new User("bench", "bench@example.com", "x", "Bench", "User");
+        user.setId(42L);
+        user.setRole(Role.USER);
+        token = cachedJwtUtil.generateToken(user, 0L);
+        
+        // Both paths must agree before their timings mean anything
+        if (!"bench".equals(legacyFilter()) || !"bench".equals(cachedFilter())
+                || !"bench".equals(uncachedFilter())) {
+            throw new IllegalStateException("Token paths disagree on the subject");
+        }
+        if (cachedJwtUtil.cachedTokenCount() != 1 || uncachedJwtUtil.cachedTokenCount() != 0) {
+            throw new IllegalStateException("Unexpected verified-token cache size");
+        }
+    }
+    
+    @Benchmark
+    public String legacyFilter() {
+        String username = legacyClaims(token).getSubject();
+        boolean valid = username.equals(legacyClaims(token).getSubject())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return valid ? username : null;
+    }
+    
+    @Benchmark
+    public String uncachedFilter() {
+        return uncachedJwtUtil.verify(token).getSubject();
+    }
+    
+    @Benchmark
+    public String cachedFilter() {
+        return cachedJwtUtil.verify(token).getSubject();
+    }
+    
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+    
+    static JwtUtil newJwtUtil(int cacheMaxEntries) throws Exception {
+        JwtUtil jwtUtil = new JwtUtil();
+        setField(jwtUtil, "secret", SECRET);
+        setField(jwtUtil, "expiration", 86400000L);
+        setField(jwtUtil, "cacheMaxEntries", cacheMaxEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+    
+    static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,54 @@
+package com.shoestore.benchmark;
+
+import com.shoestore.entity.Role;
+import com.shoestore.entity.User;
+import com.shoestore.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing a token at sign-in and fully validating one (signature and expiry, no cache), the two
+ * JWT costs not covered by {@link JwtFilterBenchmark}.
+ *
+ * <p>Run with {@code mvn -Pbenchmark package exec:exec -Djmh.includes=JwtTokenBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+    
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+    
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtil = JwtFilterBenchmark.newJwtUtil(0);
+        user = new User("bench", "bench@example.com", "x", "Bench", "User");
+        user.setId(42L);
+        user.setRole(Role.USER);
+        token = generateToken();
+        
+        if (!"bench".equals(validateToken())) {
+            throw new IllegalStateException("Generated token did not validate");
+        }
+        // validateToken must verify the signature every time rather than hit the cache
+        if (jwtUtil.cachedTokenCount() != 0) {
+            throw new IllegalStateException("Unexpected verified-token cache size");
+        }
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user, 0L);
+    }
+    
+    @Benchmark
+    public String validateToken() {
+        return jwtUtil.verify(token).getSubject();
+    }
+}
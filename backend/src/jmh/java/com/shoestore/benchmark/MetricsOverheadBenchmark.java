@@ -0,0 +1,88 @@
+package com.shoestore.benchmark;
+
+import com.shoestore.service.CheckoutMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the instrumentation on hot paths, against the same work uninstrumented.
+ *
+ * <p>{@code cachedTimer} is what {@code ServiceTimingAspect} does per call: one pre-resolved
+ * histogram timer. {@code builderTimer} resolves the timer through a builder on every call, as a
+ * per-invocation lookup would. Runs with 4 threads so the histogram's striped counters see
+ * contention.
+ *
+ * <p>Run with {@code mvn -Pbenchmark package exec:exec -Djmh.includes=MetricsOverheadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    
+    private PrometheusMeterRegistry registry;
+    private Timer timer;
+    private CheckoutMetrics checkoutMetrics;
+    
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        timer = newTimer();
+        checkoutMetrics = new CheckoutMetrics(registry);
+        
+        // Both timer paths must land on the same meter
+        timer.record(1, TimeUnit.MILLISECONDS);
+        newTimer().record(1, TimeUnit.MILLISECONDS);
+        if (timer.count() != 2 || !registry.scrape().contains("service_method_seconds_bucket")) {
+            throw new IllegalStateException("Timer paths did not share one histogram");
+        }
+    }
+    
+    @Benchmark
+    public void baseline(Blackhole blackhole) {
+        blackhole.consume(work());
+    }
+    
+    @Benchmark
+    public void cachedTimer(Blackhole blackhole) {
+        long start = System.nanoTime();
+        blackhole.consume(work());
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    
+    @Benchmark
+    public void builderTimer(Blackhole blackhole) {
+        long start = System.nanoTime();
+        blackhole.consume(work());
+        newTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    
+    @Benchmark
+    public void outcomeCounter(Blackhole blackhole) {
+        blackhole.consume(work());
+        checkoutMetrics.orderOutcome(CheckoutMetrics.ORDER_CREATED);
+    }
+    
+    private Timer newTimer() {
+        return Timer.builder("service.method")
+                .tag("class", "OrderService")
+                .tag("method", "createOrder")
+                .tag("outcome", "success")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+    
+    // Stand-in for a cheap service call, so the instrumentation is measured relative to real work
+    private static long work() {
+        Blackhole.consumeCPU(64);
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,70 @@
+package com.shoestore.benchmark;
+
+import com.razorpay.RazorpayClient;
+import com.razorpay.Utils;
+import com.shoestore.security.HmacSha256Verifier;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout signature verification, from the original per-request client to the local verifier.
+ *
+ * <p>{@code legacyVerify} reproduces the old {@code PaymentService.verifyPayment}: a new
+ * {@code RazorpayClient} and {@code JSONObject} per call, checked by {@code Utils}.
+ * {@code utilsVerify} drops the client but keeps the SDK helper.
+ *
+ * <p>Run with {@code mvn -Pbenchmark package exec:exec -Djmh.includes=PaymentSignatureBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class PaymentSignatureBenchmark {
+    
+    private static final String KEY_ID = "rzp_test_benchmark";
+    private static final String SECRET = "benchmark_key_secret";
+    private static final String ORDER_ID = "order_NJk2b7cYtT8Lq3";
+    private static final String PAYMENT_ID = "pay_NJk2q9XvZr1bWd";
+    
+    private HmacSha256Verifier verifier;
+    private String signature;
+    
+    @Setup
+    public void setUp() throws Exception {
+        verifier = new HmacSha256Verifier(SECRET);
+        signature = verifier.sign(ORDER_ID + "|" + PAYMENT_ID);
+        
+        // Correctness is covered by HmacSha256VerifierTest; this only makes sure no path is timed rejecting
+        if (!legacyVerify() || !utilsVerify() || !localVerify()) {
+            throw new IllegalStateException("Signature paths disagree on a valid signature");
+        }
+    }
+    
+    @Benchmark
+    public boolean legacyVerify() throws Exception {
+        new RazorpayClient(KEY_ID, SECRET);
+        JSONObject options = new JSONObject();
+        options.put("razorpay_order_id", ORDER_ID);
+        options.put("razorpay_payment_id", PAYMENT_ID);
+        options.put("razorpay_signature", signature);
+        return Utils.verifyPaymentSignature(options, SECRET);
+    }
+    
+    @Benchmark
+    public boolean utilsVerify() throws Exception {
+        JSONObject options = new JSONObject();
+        options.put("razorpay_order_id", ORDER_ID);
+        options.put("razorpay_payment_id", PAYMENT_ID);
+        options.put("razorpay_signature", signature);
+        return Utils.verifyPaymentSignature(options, SECRET);
+    }
+    
+    @Benchmark
+    public boolean localVerify() {
+        return verifier.verifyPayment(ORDER_ID, PAYMENT_ID, signature);
+    }
+}
@@ -0,0 +1,85 @@
+package com.shoestore.benchmark;
+
+import com.shoestore.ShoestoreBackendApplication;
+import com.shoestore.dto.ProductDto;
+import com.shoestore.entity.Product;
+import com.shoestore.repository.ProductRepository;
+import com.shoestore.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The product search path end to end below the controller: {@code ProductService.searchProducts}
+ * through JPA into an in-memory H2 database in MySQL mode, including DTO mapping and any lazy
+ * loads it triggers. The application context is started once per fork, with the stub payment
+ * gateway and rate limiting off.
+ *
+ * <p>Run with {@code mvn -Pbenchmark package exec:exec -Djmh.includes=ProductSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+    
+    @Param({"1000"})
+    private int catalogueSize;
+    
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private int expectedMatches;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Builder properties are only defaults and lose to application.yml, so the settings are arguments
+        context = new SpringApplicationBuilder(ShoestoreBackendApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--payment.gateway=stub",
+                        "--rate-limit.enabled=false",
+                        "--sql-budget.enabled=false",
+                        "--logging.level.root=WARN");
+        productService = context.getBean(ProductService.class);
+        
+        List<Product> catalogue = BenchmarkData.products(catalogueSize);
+        catalogue.forEach(product -> product.setId(null));
+        context.getBean(ProductRepository.class).saveAll(catalogue);
+        
+        expectedMatches = (int) catalogue.stream()
+                .filter(product -> product.getName().toLowerCase().contains("runner")
+                        || product.getDescription().toLowerCase().contains("runner"))
+                .count();
+        if (search().size() < expectedMatches || !searchWithoutMatches().isEmpty()) {
+            throw new IllegalStateException("Search returned unexpected results");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<ProductDto> search() {
+        return productService.searchProducts("runner");
+    }
+    
+    @Benchmark
+    public List<ProductDto> searchWithoutMatches() {
+        return productService.searchProducts("no-such-shoe");
+    }
+}
@@ -0,0 +1,84 @@
+package com.shoestore.loadtest;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection hold time and pool wait over the measured window, read from the Hikari histograms of
+ * an in-process target. Bucket counts are taken when measuring starts and subtracted at the end,
+ * so seeding and warmup stay out; a percentile is reported as the upper bound of its bucket.
+ */
+final class ConnectionPoolProbe {
+    
+    private static final String[] TIMERS = { "hikaricp.connections.usage", "hikaricp.connections.acquire" };
+    private static final double[] PERCENTILES = { 0.5, 0.99 };
+    
+    private final PrometheusMeterRegistry registry;
+    private final Map<String, HistogramSnapshot> baseline = new HashMap<>();
+    
+    // Null for a remote target, which this process cannot see into
+    ConnectionPoolProbe(PrometheusMeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    void start() {
+        if (registry == null) {
+            return;
+        }
+        for (String name : TIMERS) {
+            snapshot(name).ifPresent(snapshot -> baseline.put(name, snapshot));
+        }
+    }
+    
+    void report(LoadTestConfig config) throws IOException {
+        if (registry == null) {
+            return;
+        }
+        StringBuilder table = new StringBuilder(String.format("%-32s %10s %10s %10s%n", "pool timer", "count", "p50ms", "p99ms"));
+        for (String name : TIMERS) {
+            HistogramSnapshot before = baseline.get(name);
+            HistogramSnapshot after = snapshot(name).orElse(null);
+            if (before == null || after == null) {
+                continue;
+            }
+            long count = after.count() - before.count();
+            table.append(String.format("%-32s %10d", name, count));
+            for (double percentile : PERCENTILES) {
+                table.append(String.format(" %10s", percentile(before, after, count, percentile)));
+            }
+            table.append('\n');
+        }
+        System.out.print(table);
+        Files.createDirectories(config.reportDir);
+        Files.writeString(config.reportDir.resolve("pool.txt"), table);
+    }
+    
+    private Optional<HistogramSnapshot> snapshot(String name) {
+        Timer timer = registry.find(name).timer();
+        return Optional.ofNullable(timer).map(Timer::takeSnapshot);
+    }
+    
+    // Bucket counts are cumulative, so the window's count at or below each bound is a difference
+    private static String percentile(HistogramSnapshot before, HistogramSnapshot after, long count, double percentile) {
+        if (count == 0) {
+            return "-";
+        }
+        CountAtBucket[] start = before.histogramCounts();
+        CountAtBucket[] end = after.histogramCounts();
+        for (int i = 0; i < end.length; i++) {
+            if (end[i].count() - start[i].count() >= percentile * count) {
+                return String.format("%.3f", end[i].bucket(TimeUnit.MILLISECONDS));
+            }
+        }
+        return "max";
+    }
+}
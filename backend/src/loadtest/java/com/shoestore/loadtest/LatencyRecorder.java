@@ -0,0 +1,66 @@
+package com.shoestore.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per endpoint, in microseconds. Nothing is recorded until
+ * {@link #start()}, so setup and warmup traffic stay out of the report.
+ */
+final class LatencyRecorder {
+    
+    static final class EndpointStats {
+        final Histogram latency = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        
+        long attempts() {
+            return latency.getTotalCount() + dropped.sum();
+        }
+        
+        double errorRate() {
+            long attempts = attempts();
+            return attempts == 0 ? 0 : (errors.sum() + dropped.sum()) / (double) attempts;
+        }
+    }
+    
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    
+    private volatile boolean recording;
+    
+    void start() {
+        recording = true;
+    }
+    
+    void stop() {
+        recording = false;
+    }
+    
+    void record(String endpoint, long elapsedNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, name -> new EndpointStats());
+        stats.latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+    
+    // Counts an arrival that never ran, e.g. because the queue was full
+    void recordDropped(String endpoint) {
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, name -> new EndpointStats()).dropped.increment();
+        }
+    }
+    
+    Map<String, EndpointStats> snapshot() {
+        return new TreeMap<>(endpoints);
+    }
+}
@@ -0,0 +1,66 @@
+package com.shoestore.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code -Dloadtest.*} system properties.
+ */
+final class LoadTestConfig {
+    
+    // Base URL of a running backend; empty boots the application in-process with the loadtest profile
+    final String target;
+    // Mean session arrivals per second; arrivals follow a Poisson process regardless of response times
+    final double rate;
+    final Duration warmup;
+    final Duration duration;
+    final int users;
+    final int products;
+    // Worker threads executing sessions; arrivals beyond this queue, and the wait counts as latency
+    final int concurrency;
+    final int queueCapacity;
+    final Map<Scenario, Integer> mix;
+    final Path reportDir;
+    // Release gates; a breach makes the run exit with status 1
+    final double maxP99Millis;
+    final double maxErrorRate;
+    // In-process only: run the application with spring.threads.virtual.enabled
+    final boolean virtualThreads;
+    // In-process with virtual threads: JFR pin events above the monitor threshold that still pass; -1 disables the gate
+    final long maxPinnedEvents;
+    
+    private LoadTestConfig() {
+        target = System.getProperty("loadtest.target", "").trim();
+        rate = Double.parseDouble(System.getProperty("loadtest.rate", "50"));
+        warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15));
+        duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 120));
+        users = Integer.getInteger("loadtest.users", 200);
+        products = Integer.getInteger("loadtest.products", 500);
+        concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        queueCapacity = Integer.getInteger("loadtest.queue-capacity", 10000);
+        mix = parseMix(System.getProperty("loadtest.mix", "browse=45,search=20,cart=15,checkout=10,admin=10"));
+        reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+        maxP99Millis = Double.parseDouble(System.getProperty("loadtest.max-p99-ms", "500"));
+        maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        virtualThreads = Boolean.getBoolean("loadtest.virtual-threads");
+        maxPinnedEvents = Long.getLong("loadtest.max-pinned-events", 0);
+    }
+    
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+    
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + part);
+            }
+            mix.put(Scenario.fromName(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+}
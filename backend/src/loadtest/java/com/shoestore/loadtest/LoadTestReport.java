@@ -0,0 +1,107 @@
+package com.shoestore.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the percentile table, one HdrHistogram {@code .hgrm} file per endpoint and a
+ * {@code summary.json} for tooling, then checks the release gates.
+ */
+final class LoadTestReport {
+    
+    private static final double MICROS_PER_MILLI = 1000.0;
+    
+    private LoadTestReport() {}
+    
+    /**
+     * Returns the gate breaches; empty means the run passed.
+     */
+    static List<String> write(LoadTestConfig config, LatencyRecorder recorder, double measuredSeconds) throws IOException {
+        Files.createDirectories(config.reportDir);
+        Map<String, LatencyRecorder.EndpointStats> endpoints = recorder.snapshot();
+        List<String> breaches = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long attempts = 0;
+        long failures = 0;
+        
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "%-40s %9s %8s %8s %8s %8s %8s %9s %9s%n",
+                "endpoint", "count", "err%", "rps", "p50ms", "p90ms", "p99ms", "p99.9ms", "maxms"));
+        for (Map.Entry<String, LatencyRecorder.EndpointStats> entry : endpoints.entrySet()) {
+            String endpoint = entry.getKey();
+            LatencyRecorder.EndpointStats stats = entry.getValue();
+            Histogram latency = stats.latency;
+            attempts += stats.attempts();
+            failures += stats.errors.sum() + stats.dropped.sum();
+            
+            double p99 = millis(latency, 99.0);
+            table.append(String.format(Locale.ROOT, "%-40s %9d %8.2f %8.1f %8.2f %8.2f %8.2f %9.2f %9.2f%n",
+                    endpoint, latency.getTotalCount(), stats.errorRate() * 100,
+                    latency.getTotalCount() / measuredSeconds,
+                    millis(latency, 50.0), millis(latency, 90.0), p99, millis(latency, 99.9),
+                    latency.getMaxValue() / MICROS_PER_MILLI));
+            
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("count", latency.getTotalCount());
+            row.put("errors", stats.errors.sum());
+            row.put("dropped", stats.dropped.sum());
+            row.put("p50Ms", millis(latency, 50.0));
+            row.put("p90Ms", millis(latency, 90.0));
+            row.put("p99Ms", p99);
+            row.put("p999Ms", millis(latency, 99.9));
+            row.put("maxMs", latency.getMaxValue() / MICROS_PER_MILLI);
+            rows.add(row);
+            
+            if (latency.getTotalCount() > 0) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(config.reportDir.resolve(fileName(endpoint) + ".hgrm")))) {
+                    latency.outputPercentileDistribution(out, MICROS_PER_MILLI);
+                }
+            }
+            if (p99 > config.maxP99Millis) {
+                breaches.add(String.format(Locale.ROOT, "%s p99 %.2f ms exceeds %.2f ms", endpoint, p99, config.maxP99Millis));
+            }
+        }
+        
+        double errorRate = attempts == 0 ? 0 : failures / (double) attempts;
+        if (errorRate > config.maxErrorRate) {
+            breaches.add(String.format(Locale.ROOT, "error rate %.4f exceeds %.4f", errorRate, config.maxErrorRate));
+        }
+        table.append(String.format(Locale.ROOT, "%nrate %.1f sessions/s for %.0f s, %d requests, error rate %.4f%n",
+                config.rate, measuredSeconds, attempts, errorRate));
+        
+        Files.writeString(config.reportDir.resolve("summary.txt"), table);
+        System.out.print(table);
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("target", config.target.isEmpty() ? "in-process" : config.target);
+        summary.put("virtualThreads", config.virtualThreads);
+        summary.put("rate", config.rate);
+        summary.put("durationSeconds", measuredSeconds);
+        summary.put("mix", config.mix);
+        summary.put("errorRate", errorRate);
+        summary.put("endpoints", rows);
+        summary.put("breaches", breaches);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.reportDir.resolve("summary.json").toFile(), summary);
+        return breaches;
+    }
+    
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+    
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+}
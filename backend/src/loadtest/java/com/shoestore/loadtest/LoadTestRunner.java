@@ -0,0 +1,184 @@
+package com.shoestore.loadtest;
+
+import com.shoestore.ShoestoreBackendApplication;
+import com.shoestore.config.VirtualThreadPinningMonitor;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load test. Sessions arrive as a Poisson process at {@code loadtest.rate} per second
+ * whatever the response times, and every request is timed from when it was due rather than
+ * when a worker got to it, so a slow server shows up as latency instead of as lower load.
+ *
+ * <p>Without {@code loadtest.target} the application is started in-process with the
+ * {@code loadtest} profile (H2, stub payment gateway), so a run needs nothing but this machine.
+ * With {@code loadtest.virtual-threads} it runs on virtual threads, and the JFR pinning monitor's
+ * events are reported and gated. For an in-process target, connection pool hold and wait
+ * percentiles are reported too. Exits with status 1 when a gate in {@link LoadTestConfig} is breached.
+ */
+public final class LoadTestRunner {
+    
+    private static final int MAX_LOGGED_FAILURES = 20;
+    
+    private LoadTestRunner() {}
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext application = null;
+        String baseUrl = config.target;
+        if (baseUrl.isEmpty()) {
+            // Builder properties are only defaults and lose to application.yml, so the switch is an argument
+            String[] applicationArgs = Arrays.copyOf(args, args.length + 1);
+            applicationArgs[args.length] = "--spring.threads.virtual.enabled=" + config.virtualThreads;
+            application = new SpringApplicationBuilder(ShoestoreBackendApplication.class)
+                    .profiles("loadtest")
+                    .properties("server.port=0")
+                    .run(applicationArgs);
+            baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        }
+        
+        int status;
+        try {
+            ConnectionPoolProbe poolProbe = new ConnectionPoolProbe(application == null ? null
+                    : application.getBeanProvider(PrometheusMeterRegistry.class).getIfAvailable());
+            List<String> breaches = run(config, baseUrl, poolProbe);
+            if (application != null) {
+                checkPinning(config, application, breaches);
+            }
+            breaches.forEach(breach -> System.out.println("GATE FAILED: " + breach));
+            status = breaches.isEmpty() ? 0 : 1;
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.exit(status);
+    }
+    
+    private static List<String> run(LoadTestConfig config, String baseUrl, ConnectionPoolProbe poolProbe) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ShopClient client = new ShopClient(baseUrl, recorder);
+        System.out.println("Seeding " + baseUrl);
+        ShopData data = ShopData.seed(client, config,
+                System.getProperty("loadtest.admin-username", "admin"),
+                System.getProperty("loadtest.admin-password", "admin123"),
+                System.getProperty("loadtest.stub-secret", "stub_secret"));
+        
+        Scenario[] scenarios = config.mix.keySet().toArray(new Scenario[0]);
+        int[] cumulativeWeights = new int[scenarios.length];
+        int totalWeight = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            totalWeight += config.mix.get(scenarios[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(config.concurrency, config.concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        AtomicLong failures = new AtomicLong();
+        
+        System.out.printf("Running %.1f sessions/s: %d s warmup, %d s measured, mix %s%n", config.rate,
+                config.warmup.getSeconds(), config.duration.getSeconds(), describe(config.mix));
+        double meanGapNanos = 1_000_000_000.0 / config.rate;
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup.toNanos();
+        long end = measureFrom + config.duration.toNanos();
+        boolean measuring = false;
+        long due = start;
+        while (true) {
+            due += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && due >= measureFrom) {
+                recorder.start();
+                poolProbe.start();
+                measuring = true;
+            }
+            
+            Scenario scenario = pick(scenarios, cumulativeWeights, totalWeight);
+            long arrival = due;
+            try {
+                executor.execute(() -> runSession(scenario, client, data, recorder, arrival, failures));
+            } catch (RejectedExecutionException e) {
+                recorder.recordDropped(scenario.getName() + " session");
+            }
+        }
+        
+        // Let sessions that arrived in the window finish so their latency is counted
+        executor.shutdown();
+        if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+            System.out.println("Sessions still running after 60 s were abandoned");
+        }
+        recorder.stop();
+        poolProbe.report(config);
+        return LoadTestReport.write(config, recorder, config.duration.toMillis() / 1000.0);
+    }
+    
+    private static void checkPinning(LoadTestConfig config, ConfigurableApplicationContext application, List<String> breaches) {
+        VirtualThreadPinningMonitor monitor = application.getBeanProvider(VirtualThreadPinningMonitor.class).getIfAvailable();
+        if (monitor == null) {
+            return;
+        }
+        long pinned = monitor.getPinnedEvents();
+        System.out.println("Virtual thread pin events: " + pinned);
+        monitor.getPinnedSites().entrySet().stream().limit(5)
+                .forEach(site -> System.out.println(site.getValue() + " at:" + site.getKey()));
+        if (config.maxPinnedEvents >= 0 && pinned > config.maxPinnedEvents) {
+            breaches.add("virtual thread pin events " + pinned + " exceed " + config.maxPinnedEvents);
+        }
+    }
+    
+    private static void runSession(Scenario scenario, ShopClient client, ShopData data, LatencyRecorder recorder,
+                                   long arrival, AtomicLong failures) {
+        try {
+            scenario.run(client, data, arrival);
+        } catch (ShopData.NoIdleShopperException e) {
+            recorder.recordDropped(scenario.getName() + " session");
+        } catch (RuntimeException e) {
+            if (failures.incrementAndGet() <= MAX_LOGGED_FAILURES) {
+                System.out.println(scenario.getName() + " session failed: " + e.getMessage());
+            }
+        }
+    }
+    
+    private static Scenario pick(Scenario[] scenarios, int[] cumulativeWeights, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < scenarios.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+    
+    private static String describe(Map<Scenario, Integer> mix) {
+        StringBuilder description = new StringBuilder();
+        mix.forEach((scenario, weight) -> description.append(description.length() == 0 ? "" : ",")
+                .append(scenario.getName()).append('=').append(weight));
+        return description.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.shoestore.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One user session of the traffic mix. Each step is recorded under its own endpoint name; a
+ * failed step ends the session.
+ */
+enum Scenario {
+    
+    BROWSE("browse") {
+        @Override
+        void run(ShopClient client, ShopData data, long arrivalNanos) {
+            client.get("GET /api/products", "/api/products", null, arrivalNanos);
+            client.get("GET /api/products/{id}", "/api/products/" + data.randomProductId(), null, System.nanoTime());
+            client.get("GET /api/products/{id}", "/api/products/" + data.randomProductId(), null, System.nanoTime());
+        }
+    },
+    SEARCH("search") {
+        @Override
+        void run(ShopClient client, ShopData data, long arrivalNanos) {
+            client.get("GET /api/products/search", "/api/products/search?keyword=" + data.randomKeyword(), null, arrivalNanos);
+        }
+    },
+    CART("cart") {
+        @Override
+        void run(ShopClient client, ShopData data, long arrivalNanos) {
+            ShopData.Shopper shopper = data.borrowShopper();
+            try {
+                addToCart(client, data, shopper, arrivalNanos);
+                client.get("GET /api/cart/summary", "/api/cart/summary", shopper.token, System.nanoTime());
+            } finally {
+                data.returnShopper(shopper);
+            }
+        }
+    },
+    CHECKOUT("checkout") {
+        @Override
+        void run(ShopClient client, ShopData data, long arrivalNanos) {
+            ShopData.Shopper shopper = data.borrowShopper();
+            try {
+                addToCart(client, data, shopper, arrivalNanos);
+                JsonNode order = client.post("POST /api/orders", "/api/orders", Map.of(
+                        "shippingAddress", "1 Load Test Road",
+                        "city", "Pune",
+                        "state", "MH",
+                        "zipCode", "411001",
+                        "country", "India",
+                        // Required by validation; the server prices the order from the cart
+                        "totalAmount", 1), shopper.token, System.nanoTime());
+                long orderId = order.path("id").asLong();
+                
+                JsonNode payment = client.post("POST /api/orders/{id}/payment", "/api/orders/" + orderId + "/payment",
+                        null, shopper.token, System.nanoTime());
+                String gatewayOrderId = payment.path("razorpayOrderId").asText();
+                String paymentId = "pay_lt_" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+                String signature = data.stubSigner().sign(gatewayOrderId + "|" + paymentId);
+                client.post("POST /api/orders/{id}/verify-payment", "/api/orders/" + orderId
+                        + "/verify-payment?paymentId=" + paymentId + "&signature=" + signature,
+                        null, shopper.token, System.nanoTime());
+            } finally {
+                data.returnShopper(shopper);
+            }
+        }
+    },
+    ADMIN("admin") {
+        @Override
+        void run(ShopClient client, ShopData data, long arrivalNanos) {
+            client.get("GET /api/admin/orders", "/api/admin/orders", data.adminToken(), arrivalNanos);
+            client.get("GET /api/admin/products/low-stock", "/api/admin/products/low-stock", data.adminToken(), System.nanoTime());
+        }
+    };
+    
+    private final String name;
+    
+    Scenario(String name) {
+        this.name = name;
+    }
+    
+    abstract void run(ShopClient client, ShopData data, long arrivalNanos);
+    
+    String getName() {
+        return name;
+    }
+    
+    static Scenario fromName(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.name.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+    
+    private static void addToCart(ShopClient client, ShopData data, ShopData.Shopper shopper, long startNanos) {
+        client.post("POST /api/cart/add", "/api/cart/add",
+                Map.of("productId", data.randomProductId(), "quantity", 1), shopper.token, startNanos);
+    }
+}
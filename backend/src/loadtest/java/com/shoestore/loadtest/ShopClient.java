@@ -0,0 +1,95 @@
+package com.shoestore.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Thin HTTP client for the shop API. Every call is recorded under an endpoint name, timed from the
+ * given start so a session's first request includes the time it waited to be scheduled.
+ */
+final class ShopClient {
+    
+    static final class CallFailedException extends RuntimeException {
+        CallFailedException(String message) {
+            super(message);
+        }
+    }
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    
+    ShopClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.recorder = recorder;
+    }
+    
+    JsonNode get(String endpoint, String path, String token, long startNanos) {
+        return send(endpoint, request(path, token).GET().build(), startNanos);
+    }
+    
+    JsonNode post(String endpoint, String path, Object body, String token, long startNanos) {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return send(endpoint, request(path, token).header("Content-Type", "application/json").POST(publisher).build(), startNanos);
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+    
+    private JsonNode send(String endpoint, HttpRequest request, long startNanos) {
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - startNanos, false);
+            throw new CallFailedException(endpoint + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallFailedException(endpoint + " interrupted");
+        }
+        
+        boolean success = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, System.nanoTime() - startNanos, success);
+        if (!success) {
+            throw new CallFailedException(endpoint + " returned " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+        
+        byte[] body = response.body();
+        // Some endpoints write JSON by hand as text/plain, so sniff the body too
+        boolean json = response.headers().firstValue("Content-Type").orElse("").contains("json")
+                || (body.length > 0 && (body[0] == '{' || body[0] == '['));
+        try {
+            return json && body.length > 0 ? objectMapper.readTree(body) : TextNode.valueOf(new String(body));
+        } catch (IOException e) {
+            throw new CallFailedException(endpoint + " returned malformed JSON");
+        }
+    }
+}
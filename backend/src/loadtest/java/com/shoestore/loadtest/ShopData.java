@@ -0,0 +1,146 @@
+package com.shoestore.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.shoestore.security.HmacSha256Verifier;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Catalogue and accounts the sessions draw from. Seeding goes through the public API, so it works
+ * the same against the in-process application and a remote one.
+ */
+final class ShopData {
+    
+    static final class Shopper {
+        final String username;
+        final String token;
+        
+        Shopper(String username, String token) {
+            this.username = username;
+            this.token = token;
+        }
+    }
+    
+    static final class NoIdleShopperException extends RuntimeException {
+        NoIdleShopperException() {
+            super("Every shopper is in a session; raise loadtest.users");
+        }
+    }
+    
+    private static final String[] BRANDS = {"Nike", "Adidas", "Puma", "Reebok", "New Balance", "Asics", "Skechers", "Vans"};
+    private static final String[] CATEGORIES = {"SNEAKERS", "RUNNING", "BASKETBALL", "CASUAL", "FORMAL", "SPORTS", "BOOTS"};
+    private static final String[] GENDERS = {"MEN", "WOMEN", "UNISEX", "KIDS"};
+    private static final String PASSWORD = "loadtest123";
+    
+    private final long[] productIds;
+    private final String[] keywords;
+    private final String adminToken;
+    private final HmacSha256Verifier stubSigner;
+    // Cart and checkout sessions each hold a shopper exclusively, so carts do not interleave
+    private final Queue<Shopper> idleShoppers = new ConcurrentLinkedQueue<>();
+    
+    private ShopData(long[] productIds, String[] keywords, String adminToken, List<Shopper> shoppers, String stubSecret) {
+        this.productIds = productIds;
+        this.keywords = keywords;
+        this.adminToken = adminToken;
+        this.stubSigner = new HmacSha256Verifier(stubSecret);
+        this.idleShoppers.addAll(shoppers);
+    }
+    
+    static ShopData seed(ShopClient client, LoadTestConfig config, String adminUsername, String adminPassword,
+                         String stubSecret) {
+        String adminToken = signIn(client, adminUsername, adminPassword);
+        
+        JsonNode catalogue = client.get("setup", "/api/products", null, System.nanoTime());
+        for (int i = catalogue.size(); i < config.products; i++) {
+            client.post("setup", "/api/admin/products", product(i), adminToken, System.nanoTime());
+        }
+        catalogue = client.get("setup", "/api/products", null, System.nanoTime());
+        long[] productIds = new long[catalogue.size()];
+        Set<String> keywords = new LinkedHashSet<>();
+        for (int i = 0; i < catalogue.size(); i++) {
+            productIds[i] = catalogue.get(i).path("id").asLong();
+            keywords.add(URLEncoder.encode(catalogue.get(i).path("brand").asText().toLowerCase(), StandardCharsets.UTF_8));
+        }
+        keywords.add("no-such-shoe");
+        
+        List<Shopper> shoppers = new ArrayList<>(config.users);
+        for (int i = 0; i < config.users; i++) {
+            String username = "lt_user_" + i;
+            try {
+                client.post("setup", "/api/auth/signup", Map.of(
+                        "username", username,
+                        "email", username + "@loadtest.example",
+                        "password", PASSWORD,
+                        "firstName", "Load",
+                        "lastName", "Test " + i), null, System.nanoTime());
+            } catch (ShopClient.CallFailedException e) {
+                // Already registered by an earlier run against the same database
+            }
+            shoppers.add(new Shopper(username, signIn(client, username, PASSWORD)));
+        }
+        return new ShopData(productIds, keywords.toArray(new String[0]), adminToken, shoppers, stubSecret);
+    }
+    
+    long randomProductId() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+    
+    String randomKeyword() {
+        return keywords[ThreadLocalRandom.current().nextInt(keywords.length)];
+    }
+    
+    String adminToken() {
+        return adminToken;
+    }
+    
+    HmacSha256Verifier stubSigner() {
+        return stubSigner;
+    }
+    
+    Shopper borrowShopper() {
+        Shopper shopper = idleShoppers.poll();
+        if (shopper == null) {
+            throw new NoIdleShopperException();
+        }
+        return shopper;
+    }
+    
+    void returnShopper(Shopper shopper) {
+        idleShoppers.add(shopper);
+    }
+    
+    private static String signIn(ShopClient client, String username, String password) {
+        JsonNode response = client.post("setup", "/api/auth/signin",
+                Map.of("username", username, "password", password), null, System.nanoTime());
+        return response.path("token").asText();
+    }
+    
+    private static Map<String, Object> product(int i) {
+        String brand = BRANDS[i % BRANDS.length];
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("name", brand + " Load Test " + i);
+        product.put("description", "Generated product " + i + " for load testing");
+        product.put("price", 1999 + (i * 37) % 12000);
+        // Large enough that checkouts never run a product out of stock during a run
+        product.put("stockQuantity", 1_000_000);
+        product.put("brand", brand);
+        product.put("category", CATEGORIES[i % CATEGORIES.length]);
+        product.put("gender", GENDERS[i % GENDERS.length]);
+        product.put("imageUrls", List.of("https://images.example.com/loadtest/" + i + ".jpg"));
+        product.put("color", "Black");
+        product.put("size", "9");
+        product.put("material", "Mesh");
+        return product;
+    }
+}
@@ -0,0 +1,106 @@
+package com.shoestore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary and replica connection pools behind one routing data source, enabled with
+ * {@code replica.enabled}. Read-only transactions use the replica while it is within
+ * {@code replica.max-lag-ms} and the user has not written recently; everything else uses the
+ * primary. When disabled, Spring Boot's single data source is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceRoutingConfig.class);
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primary, ReplicaProperties replica) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+        dataSource.setDriverClassName(primary.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource replicaDataSource, ReplicaProperties replica) {
+        return new ReplicaLagMonitor(replicaDataSource, replica.getMaxLagMs());
+    }
+    
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replica) {
+        if (replica.getReadYourWritesMs() <= replica.getMaxLagMs()) {
+            logger.warn("replica.read-your-writes-ms ({}) should exceed replica.max-lag-ms ({})",
+                    replica.getReadYourWritesMs(), replica.getMaxLagMs());
+        }
+        return new ReadYourWritesTracker(replica.getReadYourWritesMs(), replica.getMaxTrackedUsers());
+    }
+    
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                                        ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites,
+                                                        ReplicaProperties replica) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(lagMonitor, readYourWrites, replica.getPrimaryOnly());
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        return routing;
+    }
+    
+    // The one JPA, JdbcTemplate and the transaction manager use
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+    
+    @Bean
+    public MeterBinder dataSourceRoutingMetrics(ReadWriteRoutingDataSource routing, ReplicaLagMonitor lagMonitor,
+                                                ReadYourWritesTracker readYourWrites) {
+        return registry -> {
+            Gauge.builder("datasource.replica.lag", lagMonitor, ReplicaLagMonitor::getLagMs)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("datasource.replica.sticky.users", readYourWrites, ReadYourWritesTracker::trackedUsers)
+                    .register(registry);
+            FunctionCounter.builder("datasource.routing", routing, ReadWriteRoutingDataSource::getReplicaReads)
+                    .tag("route", "replica-read")
+                    .register(registry);
+            FunctionCounter.builder("datasource.routing", routing, ReadWriteRoutingDataSource::getPrimaryReads)
+                    .tag("route", "primary-read")
+                    .register(registry);
+            FunctionCounter.builder("datasource.routing", routing, ReadWriteRoutingDataSource::getWrites)
+                    .tag("route", "write")
+                    .register(registry);
+        };
+    }
+}
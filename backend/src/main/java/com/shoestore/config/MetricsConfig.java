@@ -0,0 +1,87 @@
+package com.shoestore.config;
+
+import com.shoestore.dto.PasswordHashingStats;
+import com.shoestore.security.BoundedPasswordEncoder;
+import com.shoestore.security.JwtUtil;
+import com.shoestore.security.RateLimitFilter;
+import com.shoestore.service.CircuitBreaker;
+import com.shoestore.service.PaymentService;
+import com.shoestore.service.PriceTable;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Gauges and counters read from state the application already keeps, so nothing is added to the
+ * request path; values are only computed when the registry is scraped. Connection pool, JVM and
+ * HTTP server metrics come from Spring Boot's own binders.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public MeterBinder cacheMetrics(JwtUtil jwtUtil, PriceTable priceTable) {
+        return registry -> {
+            Gauge.builder("cache.size", jwtUtil, JwtUtil::cachedTokenCount)
+                    .tag("cache", "verified-tokens")
+                    .register(registry);
+            cacheGets(registry, "verified-tokens", "hit", jwtUtil, JwtUtil::getCacheHits);
+            cacheGets(registry, "verified-tokens", "miss", jwtUtil, JwtUtil::getCacheMisses);
+            
+            Gauge.builder("cache.size", priceTable, PriceTable::size)
+                    .tag("cache", "price-table")
+                    .register(registry);
+            cacheGets(registry, "price-table", "hit", priceTable, PriceTable::getHits);
+            cacheGets(registry, "price-table", "miss", priceTable, PriceTable::getMisses);
+        };
+    }
+    
+    @Bean
+    public MeterBinder passwordHashingMetrics(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            passwordGauge(registry, "password.hashing.active", passwordEncoder, PasswordHashingStats::getActiveCount);
+            passwordGauge(registry, "password.hashing.queue", passwordEncoder, PasswordHashingStats::getQueueDepth);
+            FunctionCounter.builder("password.hashing.completed", passwordEncoder, e -> e.getStats().getCompleted())
+                    .register(registry);
+            FunctionCounter.builder("password.hashing.rejected", passwordEncoder, e -> e.getStats().getRejected())
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder paymentMetrics(PaymentService paymentService) {
+        // 0 closed, 1 half open, 2 open
+        return registry -> Gauge.builder("payment.circuit.state", paymentService,
+                        service -> service.getCircuitState() == CircuitBreaker.State.OPEN ? 2
+                                : service.getCircuitState() == CircuitBreaker.State.HALF_OPEN ? 1 : 0)
+                .register(registry);
+    }
+    
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitFilter rateLimitFilter) {
+        return registry -> {
+            Gauge.builder("rate.limit.clients", rateLimitFilter, RateLimitFilter::trackedClients)
+                    .register(registry);
+            FunctionCounter.builder("rate.limit.rejected", rateLimitFilter, RateLimitFilter::rejectedRequests)
+                    .register(registry);
+        };
+    }
+    
+    private static <T> void cacheGets(MeterRegistry registry, String cache,
+                                      String result, T source, ToDoubleFunction<T> count) {
+        FunctionCounter.builder("cache.gets", source, count)
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+    
+    private static void passwordGauge(MeterRegistry registry, String name,
+                                      BoundedPasswordEncoder encoder, ToDoubleFunction<PasswordHashingStats> value) {
+        Gauge.builder(name, encoder, e -> value.applyAsDouble(e.getStats())).register(registry);
+    }
+}
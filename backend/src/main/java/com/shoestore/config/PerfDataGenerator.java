@@ -0,0 +1,323 @@
+package com.shoestore.config;
+
+import com.shoestore.entity.Category;
+import com.shoestore.entity.Gender;
+import com.shoestore.entity.OrderStatus;
+import com.shoestore.entity.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the database with a large synthetic data set for performance environments. Enable with the
+ * {@code perfdata} profile; volumes and parallelism come from {@link PerfDataProperties}.
+ *
+ * <p>Rows are written with plain JDBC batches, one batch per task on a fixed pool, and ids are
+ * assigned here from {@code MAX(id) + 1} so orders and order items can reference products and
+ * users without reading anything back. Each batch draws from its own seeded random, so a run is
+ * reproducible regardless of thread scheduling. Distributions are skewed the way shop data is: a
+ * few brands dominate the catalogue, prices are log-normal, a minority of users and products
+ * account for most orders, and order volume grows towards the present.
+ */
+@Component
+@Profile("perfdata")
+public class PerfDataGenerator implements CommandLineRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PerfDataGenerator.class);
+    
+    private static final String USER_PREFIX = "perf_user_";
+    
+    // Brands with their share of the catalogue and price multiplier
+    private static final String[] BRANDS = {"Nike", "Adidas", "Puma", "Reebok", "New Balance", "Asics", "Skechers", "Vans", "Converse", "Bata", "Woodland", "Red Tape"};
+    private static final int[] BRAND_WEIGHTS = {24, 18, 11, 8, 7, 6, 6, 5, 5, 4, 3, 3};
+    private static final double[] BRAND_PRICE_FACTORS = {1.4, 1.3, 1.0, 0.9, 1.3, 1.2, 0.9, 1.0, 1.0, 0.5, 0.8, 0.7};
+    
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int[] CATEGORY_WEIGHTS = weightsFor(CATEGORIES, new int[]{25, 20, 8, 15, 6, 10, 6, 4, 3, 3});
+    
+    private static final Gender[] GENDERS = Gender.values();
+    private static final int[] GENDER_WEIGHTS = weightsFor(GENDERS, new int[]{42, 35, 13, 10});
+    
+    private static final String[] MODELS = {"Runner", "Glide", "Court", "Trail", "Street", "Classic", "Pulse", "Flex", "Edge", "Cloud", "Drift", "Apex"};
+    private static final String[] COLORS = {"Black", "White", "Grey", "Navy", "Red", "Blue", "Brown", "Green", "Beige", "Pink"};
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL"};
+    private static final String[] MATERIALS = {"Mesh", "Leather", "Synthetic", "Canvas", "Suede", "Knit", "Rubber"};
+    private static final String[] IMAGES = {
+            "https://images.unsplash.com/photo-1542291026-7eec264c27ff?w=500",
+            "https://images.unsplash.com/photo-1606107557195-0e29a4b5b4aa?w=500",
+            "https://images.unsplash.com/photo-1549298916-b41d501d3772?w=500",
+            "https://images.unsplash.com/photo-1595950653106-6c9ebd614d3a?w=500",
+            "https://images.unsplash.com/photo-1543163521-1bf539c55dd2?w=500"
+    };
+    
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Ananya", "Diya", "Isha", "Rohan", "Priya", "Kabir", "Meera", "Arjun", "Sara", "Neha", "Rahul", "Kavya", "Dev"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Patel", "Iyer", "Reddy", "Nair", "Gupta", "Singh", "Das", "Mehta", "Rao", "Joshi"};
+    // City, state, postal code prefix; the first few take most orders
+    private static final String[][] CITIES = {
+            {"Mumbai", "MH", "400"}, {"Delhi", "DL", "110"}, {"Bengaluru", "KA", "560"}, {"Hyderabad", "TS", "500"},
+            {"Chennai", "TN", "600"}, {"Pune", "MH", "411"}, {"Kolkata", "WB", "700"}, {"Ahmedabad", "GJ", "380"},
+            {"Jaipur", "RJ", "302"}, {"Lucknow", "UP", "226"}, {"Kochi", "KL", "682"}, {"Indore", "MP", "452"}
+    };
+    private static final int[] CITY_WEIGHTS = {18, 16, 15, 10, 9, 8, 7, 5, 4, 3, 3, 2};
+    
+    private static final String USER_INSERT = "INSERT INTO users (id, username, email, password, first_name, last_name, phone_number, role, enabled, token_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String PRODUCT_INSERT = "INSERT INTO products (id, name, description, price, stock_quantity, brand, category, gender, color, size, material, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String IMAGE_INSERT = "INSERT INTO product_images (product_id, image_url) VALUES (?, ?)";
+    private static final String ORDER_INSERT = "INSERT INTO orders (id, user_id, total_amount, status, shipping_address, city, state, zip_code, country, phone_number, gateway_order_id, gateway_order_amount, payment_id, payment_status, order_date, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ITEM_INSERT = "INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (?, ?, ?, ?)";
+    
+    @FunctionalInterface
+    private interface BatchWriter {
+        void write(long from, long to, SplittableRandom random);
+    }
+    
+    @Autowired
+    private PerfDataProperties properties;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private ConfigurableApplicationContext context;
+    
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, USER_PREFIX + "0");
+        if (existing != null && existing > 0) {
+            logger.info("Performance data already present, skipping generation");
+        } else {
+            generate();
+        }
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+    
+    private void generate() throws Exception {
+        if (properties.getOrders() > 0 && (properties.getUsers() <= 0 || properties.getProducts() <= 0)) {
+            throw new IllegalStateException("perf-data.orders needs at least one user and one product");
+        }
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        long userBase = nextId("users");
+        long productBase = nextId("products");
+        long orderBase = nextId("orders");
+        // Every generated user shares one hash so seeding does not spend minutes in BCrypt
+        String passwordHash = passwordEncoder.encode("perfdata123");
+        // Prices in paise by product index, so order lines can be priced without reading products back
+        long[] productPrices = new long[properties.getProducts()];
+        
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads(), threadFactory());
+        try {
+            writeAll(executor, "users", properties.getUsers(),
+                    (from, to, random) -> writeUsers(userBase, from, to, random, passwordHash, now));
+            writeAll(executor, "products", properties.getProducts(),
+                    (from, to, random) -> writeProducts(productBase, from, to, random, productPrices, now));
+            writeAll(executor, "orders", properties.getOrders(),
+                    (from, to, random) -> writeOrders(orderBase, userBase, productBase, from, to, random, productPrices, now));
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Generated {} users, {} products and {} orders in {} s", properties.getUsers(), properties.getProducts(),
+                properties.getOrders(), (System.currentTimeMillis() - started) / 1000);
+    }
+    
+    private void writeAll(ExecutorService executor, String table, long total, BatchWriter writer) throws Exception {
+        if (total <= 0) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int batchSize = properties.getBatchSize();
+        long batches = (total + batchSize - 1) / batchSize;
+        long reportEvery = Math.max(1, batches / 10);
+        AtomicLong done = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (long batch = 0; batch < batches; batch++) {
+            long from = batch * batchSize;
+            long to = Math.min(total, from + batchSize);
+            SplittableRandom random = new SplittableRandom(properties.getSeed() * 1_000_003L + table.hashCode() * 31L + batch);
+            futures.add(executor.submit(() -> {
+                writer.write(from, to, random);
+                long completed = done.incrementAndGet();
+                if (completed % reportEvery == 0) {
+                    logger.info("{}: {}% written", table, completed * 100 / batches);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        logger.info("{}: {} rows in {} ms", table, total, System.currentTimeMillis() - started);
+    }
+    
+    private void writeUsers(long base, long from, long to, SplittableRandom random, String passwordHash, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(random.nextLong(properties.getHistoryDays() * 1440L)));
+            rows.add(new Object[]{
+                    base + i, USER_PREFIX + i, USER_PREFIX + i + "@example.com", passwordHash,
+                    pick(FIRST_NAMES, random), pick(LAST_NAMES, random), "9" + (100000000L + random.nextLong(900000000L)),
+                    Role.USER.name(), true, 0L, createdAt, createdAt
+            });
+        }
+        jdbcTemplate.batchUpdate(USER_INSERT, rows);
+    }
+    
+    private void writeProducts(long base, long from, long to, SplittableRandom random, long[] prices, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        List<Object[]> images = new ArrayList<>((int) (to - from) * 2);
+        for (long i = from; i < to; i++) {
+            int brand = weighted(BRAND_WEIGHTS, random);
+            // Log-normal around a 2,500 median, ending in 99 as shop prices do
+            double raw = 2500 * BRAND_PRICE_FACTORS[brand] * Math.exp(0.6 * random.nextGaussian());
+            long rupees = Math.max(299, Math.min(30000, Math.round(raw / 100) * 100 - 1));
+            prices[(int) i] = rupees * 100;
+            // A few products are sold out or delisted
+            int stock = random.nextInt(100) < 5 ? 0 : random.nextInt(1, 200);
+            Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(random.nextLong(properties.getHistoryDays() * 1440L)));
+            Category category = CATEGORIES[weighted(CATEGORY_WEIGHTS, random)];
+            rows.add(new Object[]{
+                    base + i, BRANDS[brand] + " " + pick(MODELS, random) + " " + (i % 1000),
+                    BRANDS[brand] + " " + category.name().toLowerCase() + " shoe for everyday wear.",
+                    BigDecimal.valueOf(rupees * 100, 2), stock, BRANDS[brand], category.name(),
+                    GENDERS[weighted(GENDER_WEIGHTS, random)].name(), pick(COLORS, random), pick(SIZES, random),
+                    pick(MATERIALS, random), random.nextInt(100) >= 3, createdAt, createdAt
+            });
+            int imageCount = 1 + random.nextInt(3);
+            for (int image = 0; image < imageCount; image++) {
+                images.add(new Object[]{base + i, pick(IMAGES, random)});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(PRODUCT_INSERT, rows);
+            jdbcTemplate.batchUpdate(IMAGE_INSERT, images);
+        });
+    }
+    
+    private void writeOrders(long base, long userBase, long productBase, long from, long to, SplittableRandom random,
+                             long[] prices, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        List<Object[]> items = new ArrayList<>((int) (to - from) * 2);
+        long historyMinutes = properties.getHistoryDays() * 1440L;
+        for (long i = from; i < to; i++) {
+            long id = base + i;
+            // Squaring skews towards low indexes: a minority of users and products take most orders
+            long userId = userBase + skewed(properties.getUsers(), 2.0, random);
+            int lines = lineCount(random);
+            long total = 0;
+            for (int line = 0; line < lines; line++) {
+                int product = (int) skewed(prices.length, 3.0, random);
+                int quantity = random.nextInt(100) < 85 ? 1 : 2 + random.nextInt(2);
+                total += prices[product] * quantity;
+                items.add(new Object[]{id, productBase + product, quantity, BigDecimal.valueOf(prices[product], 2)});
+            }
+            // Volume grows linearly, so recent days have the most orders
+            long ageMinutes = (long) (historyMinutes * (1 - Math.sqrt(random.nextDouble())));
+            LocalDateTime orderDate = now.minusMinutes(ageMinutes);
+            OrderStatus status = status(ageMinutes, random);
+            boolean paid = status != OrderStatus.PENDING;
+            String[] city = CITIES[weighted(CITY_WEIGHTS, random)];
+            BigDecimal amount = BigDecimal.valueOf(total, 2);
+            rows.add(new Object[]{
+                    id, userId, amount, status.name(), (1 + random.nextInt(999)) + " " + pick(LAST_NAMES, random) + " Road",
+                    city[0], city[1], city[2] + String.format("%03d", random.nextInt(1000)), "India", null,
+                    "order_perf_" + id, amount, paid ? "pay_perf_" + id : null,
+                    paid ? (status == OrderStatus.REFUNDED ? "refunded" : "captured") : null,
+                    Timestamp.valueOf(orderDate), Timestamp.valueOf(orderDate)
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(ORDER_INSERT, rows);
+            jdbcTemplate.batchUpdate(ITEM_INSERT, items);
+        });
+    }
+    
+    private static OrderStatus status(long ageMinutes, SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (ageMinutes < 2 * 1440) {
+            return roll < 15 ? OrderStatus.PENDING : roll < 50 ? OrderStatus.CONFIRMED : roll < 80 ? OrderStatus.PROCESSING : OrderStatus.SHIPPED;
+        }
+        if (ageMinutes < 10 * 1440) {
+            return roll < 50 ? OrderStatus.SHIPPED : roll < 92 ? OrderStatus.DELIVERED : OrderStatus.CANCELLED;
+        }
+        return roll < 90 ? OrderStatus.DELIVERED : roll < 97 ? OrderStatus.CANCELLED : OrderStatus.REFUNDED;
+    }
+    
+    private static int lineCount(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        return roll < 55 ? 1 : roll < 80 ? 2 : roll < 92 ? 3 : 4 + random.nextInt(3);
+    }
+    
+    // Index in [0, size) with density falling off as a power of the uniform draw
+    private static long skewed(long size, double exponent, SplittableRandom random) {
+        return Math.min(size - 1, (long) (size * Math.pow(random.nextDouble(), exponent)));
+    }
+    
+    private static int weighted(int[] weights, SplittableRandom random) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+    
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    // Guards against an enum gaining a constant without a weight
+    private static int[] weightsFor(Object[] values, int[] weights) {
+        if (values.length != weights.length) {
+            throw new IllegalStateException("Expected " + values.length + " weights but got " + weights.length);
+        }
+        return weights;
+    }
+    
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+    
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "perf-data-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
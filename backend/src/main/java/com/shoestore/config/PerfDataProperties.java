@@ -0,0 +1,92 @@
+package com.shoestore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "perf-data")
+public class PerfDataProperties {
+    
+    private int users = 100000;
+    private int products = 1000000;
+    private int orders = 10000000;
+    
+    // Orders are spread over this many days, weighted towards recent ones
+    private int historyDays = 730;
+    
+    private int threads = 8;
+    
+    // Rows per JDBC batch; each batch is one task and one transaction
+    private int batchSize = 1000;
+    
+    // The same seed produces the same data set
+    private long seed = 42;
+    
+    // Shuts the application down once the data is written
+    private boolean exitWhenDone = false;
+    
+    // Getters and Setters
+    public int getUsers() {
+        return users;
+    }
+    
+    public void setUsers(int users) {
+        this.users = users;
+    }
+    
+    public int getProducts() {
+        return products;
+    }
+    
+    public void setProducts(int products) {
+        this.products = products;
+    }
+    
+    public int getOrders() {
+        return orders;
+    }
+    
+    public void setOrders(int orders) {
+        this.orders = orders;
+    }
+    
+    public int getHistoryDays() {
+        return historyDays;
+    }
+    
+    public void setHistoryDays(int historyDays) {
+        this.historyDays = historyDays;
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    public boolean isExitWhenDone() {
+        return exitWhenDone;
+    }
+    
+    public void setExitWhenDone(boolean exitWhenDone) {
+        this.exitWhenDone = exitWhenDone;
+    }
+}
@@ -0,0 +1,115 @@
+package com.shoestore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // Buckets kept per rule; keys beyond this share one overflow bucket until the sweep frees room
+    private int maxClients = 100000;
+    
+    private boolean trustForwardedFor = false;
+    
+    private List<Rule> rules = new ArrayList<>();
+    
+    public static class Rule {
+        
+        private String name;
+        private String pattern;
+        // Empty means every method
+        private List<String> methods = new ArrayList<>();
+        // "ip" or "user"; "user" falls back to the IP for anonymous requests
+        private String key = "ip";
+        private int capacity;
+        private int refillPerMinute;
+        
+        // Getters and Setters
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getPattern() {
+            return pattern;
+        }
+        
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+        
+        public List<String> getMethods() {
+            return methods;
+        }
+        
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        public void setKey(String key) {
+            this.key = key;
+        }
+        
+        public int getCapacity() {
+            return capacity;
+        }
+        
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+        
+        public int getRefillPerMinute() {
+            return refillPerMinute;
+        }
+        
+        public void setRefillPerMinute(int refillPerMinute) {
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getMaxClients() {
+        return maxClients;
+    }
+    
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+    
+    public boolean isTrustForwardedFor() {
+        return trustForwardedFor;
+    }
+    
+    public void setTrustForwardedFor(boolean trustForwardedFor) {
+        this.trustForwardedFor = trustForwardedFor;
+    }
+    
+    public List<Rule> getRules() {
+        return rules;
+    }
+    
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+}
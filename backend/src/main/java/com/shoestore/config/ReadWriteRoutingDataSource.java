@@ -0,0 +1,79 @@
+package com.shoestore.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the replica and everything
+ * else to the primary. The lookup reads the transaction's read-only flag, which Spring sets after
+ * the transaction manager has asked for a connection, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that defers the
+ * lookup to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+    
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    private final List<String> primaryOnly;
+    
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites, List<String> primaryOnly) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        this.primaryOnly = List.copyOf(primaryOnly);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Also covers work outside a transaction, such as schema updates at startup
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                writes.increment();
+                readYourWrites.recordWrite();
+            }
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isUsable() || isPrimaryOnly(TransactionSynchronizationManager.getCurrentTransactionName())
+                || readYourWrites.wroteRecently()) {
+            primaryReads.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        return Route.REPLICA;
+    }
+    
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+    
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+    
+    public long getWrites() {
+        return writes.sum();
+    }
+    
+    private boolean isPrimaryOnly(String transactionName) {
+        if (transactionName == null) {
+            return false;
+        }
+        for (String prefix : primaryOnly) {
+            if (transactionName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
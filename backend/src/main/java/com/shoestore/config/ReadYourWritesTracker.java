@@ -0,0 +1,93 @@
+package com.shoestore.config;
+
+import com.shoestore.entity.User;
+import com.shoestore.security.JwtPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which users committed a write recently, so their next reads (the order page after
+ * checkout, the cart after adding to it) go to the primary instead of a replica that may not have
+ * the change yet. Requests without a signed-in user are not tracked.
+ */
+public class ReadYourWritesTracker {
+    
+    private final long windowNanos;
+    private final int maxTrackedUsers;
+    // User id to the System.nanoTime() until which their reads stay on the primary
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+    
+    public ReadYourWritesTracker(long windowMs, int maxTrackedUsers) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxTrackedUsers = maxTrackedUsers;
+    }
+    
+    /**
+     * Starts the current user's window once the current transaction commits.
+     */
+    public void recordWrite() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(userId);
+            }
+        });
+    }
+    
+    public boolean wroteRecently() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        primaryUntil.remove(userId, until);
+        return false;
+    }
+    
+    public int trackedUsers() {
+        return primaryUntil.size();
+    }
+    
+    private void record(Long userId) {
+        long now = System.nanoTime();
+        if (primaryUntil.size() >= maxTrackedUsers) {
+            primaryUntil.values().removeIf(until -> now - until >= 0);
+        }
+        primaryUntil.put(userId, now + windowNanos);
+    }
+    
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof JwtPrincipal) {
+            return ((JwtPrincipal) principal).getId();
+        }
+        if (principal instanceof User) {
+            return ((User) principal).getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.shoestore.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Polls the replica's replication status. The replica only serves reads while its lag is known
+ * and within {@code replica.max-lag-ms}; until the first successful check, and whenever the check
+ * fails or replication is stopped, reads go to the primary.
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    
+    // -1 while unknown
+    private volatile long lagMs = -1;
+    private volatile boolean usable;
+    
+    public ReplicaLagMonitor(DataSource replica, long maxLagMs) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+    }
+    
+    @Scheduled(fixedDelayString = "${replica.lag-check-interval-ms:1000}")
+    public void check() {
+        long lag;
+        try {
+            lag = readLagMs();
+        } catch (RuntimeException e) {
+            logger.debug("Replica status check failed: {}", e.getMessage());
+            lag = -1;
+        }
+        boolean nowUsable = lag >= 0 && lag <= maxLagMs;
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                logger.info("Replica lag {} ms, routing read-only transactions to the replica", lag);
+            } else {
+                logger.warn("Replica lag {}, routing read-only transactions to the primary", lag < 0 ? "unknown" : lag + " ms");
+            }
+        }
+        lagMs = lag;
+        usable = nowUsable;
+    }
+    
+    public boolean isUsable() {
+        return usable;
+    }
+    
+    public long getLagMs() {
+        return lagMs;
+    }
+    
+    private long readLagMs() {
+        List<Map<String, Object>> status;
+        try {
+            status = replica.queryForList("SHOW REPLICA STATUS");
+        } catch (RuntimeException e) {
+            // MySQL before 8.0.22
+            status = replica.queryForList("SHOW SLAVE STATUS");
+        }
+        if (status.isEmpty()) {
+            // Not a replica, e.g. the primary itself in development
+            return 0;
+        }
+        Map<String, Object> row = status.get(0);
+        Object seconds = row.containsKey("Seconds_Behind_Source") ? row.get("Seconds_Behind_Source") : row.get("Seconds_Behind_Master");
+        // Null while the replication threads are stopped
+        return seconds == null ? -1 : ((Number) seconds).longValue() * 1000;
+    }
+}
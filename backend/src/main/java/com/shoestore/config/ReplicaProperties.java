@@ -0,0 +1,114 @@
+package com.shoestore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaProperties {
+    
+    // Off: every transaction uses spring.datasource
+    private boolean enabled = false;
+    
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 20;
+    
+    // Reads fall back to the primary while the replica is further behind than this, or its lag is unknown
+    private long maxLagMs = 2000;
+    
+    private long lagCheckIntervalMs = 1000;
+    
+    // After a user's write commits, their reads stay on the primary this long; keep it above max-lag-ms
+    private long readYourWritesMs = 5000;
+    
+    private int maxTrackedUsers = 100000;
+    
+    // Read-only transactions whose name (declaring class and method) starts with one of these stay on the primary
+    private List<String> primaryOnly = new ArrayList<>();
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+    
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+    
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+    
+    public void setMaxLagMs(long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+    
+    public long getLagCheckIntervalMs() {
+        return lagCheckIntervalMs;
+    }
+    
+    public void setLagCheckIntervalMs(long lagCheckIntervalMs) {
+        this.lagCheckIntervalMs = lagCheckIntervalMs;
+    }
+    
+    public long getReadYourWritesMs() {
+        return readYourWritesMs;
+    }
+    
+    public void setReadYourWritesMs(long readYourWritesMs) {
+        this.readYourWritesMs = readYourWritesMs;
+    }
+    
+    public int getMaxTrackedUsers() {
+        return maxTrackedUsers;
+    }
+    
+    public void setMaxTrackedUsers(int maxTrackedUsers) {
+        this.maxTrackedUsers = maxTrackedUsers;
+    }
+    
+    public List<String> getPrimaryOnly() {
+        return primaryOnly;
+    }
+    
+    public void setPrimaryOnly(List<String> primaryOnly) {
+        this.primaryOnly = primaryOnly;
+    }
+}
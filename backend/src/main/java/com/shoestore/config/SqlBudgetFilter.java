@@ -0,0 +1,90 @@
+package com.shoestore.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request runs and checks them against the budget of the first
+ * matching {@code sql-budget.rules} entry. Requests over budget, or repeating one statement
+ * {@code repeat-threshold} times (the usual sign of lazy loading in a loop), are logged with the
+ * offending SQL and counted in {@code sql.budget.exceeded}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+    
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    
+    @Autowired
+    private SqlBudgetProperties properties;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                check(request, scope);
+            }
+        }
+    }
+    
+    private void check(HttpServletRequest request, SqlStatementCounter.Scope scope) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        int budget = budgetFor(method, path);
+        int count = scope.getCount();
+        Map<String, Integer> repeated = scope.getRepeated(properties.getRepeatThreshold());
+        if (count <= budget && repeated.isEmpty()) {
+            return;
+        }
+        
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Counter.builder("sql.budget.exceeded")
+                .tag("uri", uri)
+                .tag("reason", count > budget ? "budget" : "repeated")
+                .register(registry)
+                .increment();
+        logger.warn("{} {} ran {} SQL statements (budget {}); repeated: {}", method, path, count, budget, repeated);
+    }
+    
+    private int budgetFor(String method, String path) {
+        for (SqlBudgetProperties.Rule rule : properties.getRules()) {
+            boolean methodMatches = rule.getMethods().isEmpty()
+                    || rule.getMethods().stream().anyMatch(m -> m.toUpperCase(Locale.ROOT).equals(method));
+            if (methodMatches && PATH_MATCHER.match(rule.getPattern(), path)) {
+                return rule.getMax();
+            }
+        }
+        return properties.getDefaultBudget();
+    }
+}
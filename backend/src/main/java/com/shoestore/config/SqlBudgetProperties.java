@@ -0,0 +1,108 @@
+package com.shoestore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "sql-budget")
+public class SqlBudgetProperties {
+    
+    private boolean enabled = true;
+    
+    // Statements allowed for a request that matches no rule
+    private int defaultBudget = 20;
+    
+    // Running the same SQL this many times in one request is reported as a likely N+1
+    private int repeatThreshold = 5;
+    
+    // Adds X-SQL-Statements to responses; for development only
+    private boolean exposeHeader = false;
+    
+    private List<Rule> rules = new ArrayList<>();
+    
+    public static class Rule {
+        
+        private String name;
+        private String pattern;
+        // Empty means every method
+        private List<String> methods = new ArrayList<>();
+        private int max;
+        
+        // Getters and Setters
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getPattern() {
+            return pattern;
+        }
+        
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+        
+        public List<String> getMethods() {
+            return methods;
+        }
+        
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+        
+        public int getMax() {
+            return max;
+        }
+        
+        public void setMax(int max) {
+            this.max = max;
+        }
+    }
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+    
+    public void setDefaultBudget(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+    
+    public int getRepeatThreshold() {
+        return repeatThreshold;
+    }
+    
+    public void setRepeatThreshold(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+    
+    public boolean isExposeHeader() {
+        return exposeHeader;
+    }
+    
+    public void setExposeHeader(boolean exposeHeader) {
+        this.exposeHeader = exposeHeader;
+    }
+    
+    public List<Rule> getRules() {
+        return rules;
+    }
+    
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+}
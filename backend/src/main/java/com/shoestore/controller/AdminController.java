@@ -1,10 +1,16 @@
 package com.shoestore.controller;
 
+import com.shoestore.dto.CartSweepReport;
+import com.shoestore.dto.PasswordHashingStats;
 import com.shoestore.dto.OrderDto;
 import com.shoestore.dto.ProductDto;
 import com.shoestore.entity.OrderStatus;
+import com.shoestore.entity.Role;
+import com.shoestore.security.BoundedPasswordEncoder;
+import com.shoestore.service.AbandonedCartSweeper;
 import com.shoestore.service.OrderService;
 import com.shoestore.service.ProductService;
+import com.shoestore.service.TokenVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +29,15 @@ public class AdminController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private AbandonedCartSweeper abandonedCartSweeper;
+    
+    @Autowired
+    private TokenVersionService tokenVersionService;
+    
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+    
     // Product Management
     @PostMapping("/products")
     public ResponseEntity<?> createProduct(@Valid @RequestBody ProductDto productDto) {
@@ -76,5 +91,46 @@ public class AdminController {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
+    
+    // User Management
+    @PutMapping("/users/{userId}/role")
+    public ResponseEntity<?> updateUserRole(@PathVariable Long userId, @RequestParam Role role) {
+        try {
+            tokenVersionService.changeRole(userId, role);
+            return ResponseEntity.ok("User role updated");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    @PutMapping("/users/{userId}/enabled")
+    public ResponseEntity<?> updateUserEnabled(@PathVariable Long userId, @RequestParam boolean enabled) {
+        try {
+            tokenVersionService.setEnabled(userId, enabled);
+            return ResponseEntity.ok(enabled ? "User enabled" : "User disabled");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/users/{userId}/revoke-tokens")
+    public ResponseEntity<?> revokeUserTokens(@PathVariable Long userId) {
+        try {
+            tokenVersionService.revokeAll(userId);
+            return ResponseEntity.ok("User tokens revoked");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/security/password-hashing")
+    public ResponseEntity<PasswordHashingStats> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.getStats());
+    }
+    
+    // Cart Maintenance
+    @PostMapping("/carts/sweep")
+    public ResponseEntity<CartSweepReport> sweepAbandonedCarts() {
+        return ResponseEntity.ok(abandonedCartSweeper.sweep());
+    }
 }
-
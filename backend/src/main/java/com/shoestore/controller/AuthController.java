@@ -2,13 +2,20 @@ package com.shoestore.controller;
 
 import com.shoestore.dto.JwtResponse;
 import com.shoestore.dto.LoginRequest;
+import com.shoestore.dto.RefreshTokenRequest;
 import com.shoestore.dto.SignupRequest;
+import com.shoestore.security.PasswordHashingBusyException;
 import com.shoestore.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/auth")
@@ -22,6 +29,46 @@ public class AuthController {
         try {
             JwtResponse jwtResponse = authService.authenticateUser(loginRequest);
             return ResponseEntity.ok(jwtResponse);
+        } catch (AuthenticationServiceException e) {
+            // A saturated hashing pool is a server condition, not bad credentials
+            PasswordHashingBusyException busy = PasswordHashingBusyException.find(e);
+            if (busy != null) {
+                return busy(busy);
+            }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/available")
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            return ResponseEntity.badRequest().body("Error: username or email is required");
+        }
+        Map<String, Boolean> availability = authService.checkAvailability(username, email);
+        return ResponseEntity.ok(availability);
+    }
+    
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            JwtResponse jwtResponse = authService.refreshToken(refreshRequest.getRefreshToken());
+            return ResponseEntity.ok(jwtResponse);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: " + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshTokenRequest refreshRequest,
+                                    @RequestHeader(value = "Authorization", required = false) String authorization) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                    ? authorization.substring(7) : null;
+            authService.logout(refreshRequest.getRefreshToken(), accessToken);
+            return ResponseEntity.ok("Logged out successfully");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -32,9 +79,16 @@ public class AuthController {
         try {
             authService.registerUser(signUpRequest);
             return ResponseEntity.ok("User registered successfully!");
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
+    
+    private ResponseEntity<?> busy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Error: " + e.getMessage());
+    }
 }
-
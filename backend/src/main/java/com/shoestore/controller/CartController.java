@@ -1,6 +1,8 @@
 package com.shoestore.controller;
 
+import com.shoestore.dto.CartBatchRequest;
 import com.shoestore.dto.CartItemDto;
+import com.shoestore.dto.CartSummaryDto;
 import com.shoestore.service.CartService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +29,16 @@ public class CartController {
         }
     }
     
+    @GetMapping("/summary")
+    public ResponseEntity<?> getCartSummary() {
+        try {
+            CartSummaryDto summary = cartService.getCartSummary();
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
     @PostMapping("/add")
     public ResponseEntity<?> addToCart(@Valid @RequestBody CartItemDto cartItemDto) {
         try {
@@ -57,6 +69,16 @@ public class CartController {
         }
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@Valid @RequestBody CartBatchRequest batchRequest) {
+        try {
+            List<CartItemDto> cartItems = cartService.applyBatch(batchRequest.getOperations());
+            return ResponseEntity.ok(cartItems);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
     @DeleteMapping("/clear")
     public ResponseEntity<?> clearCart() {
         try {
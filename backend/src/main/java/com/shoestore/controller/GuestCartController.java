@@ -0,0 +1,76 @@
+package com.shoestore.controller;
+
+import com.shoestore.dto.CartItemDto;
+import com.shoestore.service.CartService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/guest-cart")
+public class GuestCartController {
+    
+    private static final String CART_TOKEN_HEADER = "X-Cart-Token";
+    
+    @Autowired
+    private CartService cartService;
+    
+    @PostMapping
+    public ResponseEntity<?> createGuestCart() {
+        try {
+            return ResponseEntity.ok(Map.of("cartToken", cartService.createGuestCart()));
+        } catch (Exception e) {
+            // The only failure is the in-memory cart limit; clients can retry later
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<?> getCartItems(@RequestHeader(CART_TOKEN_HEADER) String cartToken) {
+        try {
+            List<CartItemDto> cartItems = cartService.getGuestCartItems(cartToken);
+            return ResponseEntity.ok(cartItems);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/add")
+    public ResponseEntity<?> addToCart(@RequestHeader(CART_TOKEN_HEADER) String cartToken,
+                                       @Valid @RequestBody CartItemDto cartItemDto) {
+        try {
+            CartItemDto addedItem = cartService.addToGuestCart(cartToken, cartItemDto.getProductId(), cartItemDto.getQuantity());
+            return ResponseEntity.ok(addedItem);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    @PutMapping("/{productId}")
+    public ResponseEntity<?> updateCartItem(@RequestHeader(CART_TOKEN_HEADER) String cartToken,
+                                            @PathVariable Long productId, @Valid @RequestBody CartItemDto cartItemDto) {
+        try {
+            CartItemDto updatedItem = cartService.updateGuestCartItem(cartToken, productId, cartItemDto.getQuantity());
+            return ResponseEntity.ok(updatedItem);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<?> removeFromCart(@RequestHeader(CART_TOKEN_HEADER) String cartToken,
+                                            @PathVariable Long productId) {
+        try {
+            cartService.removeFromGuestCart(cartToken, productId);
+            return ResponseEntity.ok("Item removed from cart");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.shoestore.controller;
 
 import com.shoestore.dto.OrderDto;
 import com.shoestore.service.OrderService;
+import com.shoestore.service.PaymentGatewayUnavailableException;
+import com.shoestore.service.PaymentOrderService;
 import com.shoestore.service.PaymentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +25,9 @@ public class OrderController {
     @Autowired
     private PaymentService paymentService;
     
+    @Autowired
+    private PaymentOrderService paymentOrderService;
+    
     @GetMapping
     public ResponseEntity<List<OrderDto>> getUserOrders() {
         try {
@@ -54,10 +61,11 @@ public class OrderController {
     @PostMapping("/{orderId}/payment")
     public ResponseEntity<?> createPaymentOrder(@PathVariable Long orderId) {
         try {
-            OrderDto order = orderService.getOrderById(orderId);
-            String razorpayOrderId = paymentService.createOrder(
-                    order.getTotalAmount(), "INR", "order_" + orderId);
+            // Reuses the order's existing gateway order when the amount is unchanged
+            String razorpayOrderId = paymentOrderService.getOrCreateGatewayOrder(orderId);
             return ResponseEntity.ok().body("{\"razorpayOrderId\": \"" + razorpayOrderId + "\"}");
+        } catch (PaymentGatewayUnavailableException e) {
+            return gatewayUnavailable(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -69,7 +77,11 @@ public class OrderController {
                                          @RequestParam String signature) {
         try {
             OrderDto order = orderService.getOrderById(orderId);
-            boolean isValid = paymentService.verifyPayment("order_" + orderId, paymentId, signature);
+            if (order.getGatewayOrderId() == null) {
+                return ResponseEntity.badRequest().body("No payment order for this order");
+            }
+            // The signature covers the gateway's order id, not the receipt
+            boolean isValid = paymentService.verifyPayment(order.getGatewayOrderId(), paymentId, signature);
             
             if (isValid) {
                 orderService.updatePaymentStatus(orderId, paymentId, "captured");
@@ -81,5 +93,11 @@ public class OrderController {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
+    
+    private ResponseEntity<?> gatewayUnavailable(PaymentGatewayUnavailableException e) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfterMs() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Error: " + e.getMessage());
+    }
 }
-
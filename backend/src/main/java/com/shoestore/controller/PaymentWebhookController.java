@@ -0,0 +1,27 @@
+package com.shoestore.controller;
+
+import com.shoestore.service.PaymentWebhookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/payments")
+public class PaymentWebhookController {
+    
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+    
+    // The signature covers the exact bytes sent, so the body is taken raw
+    @PostMapping("/webhook")
+    public ResponseEntity<?> receiveWebhook(@RequestBody byte[] body,
+                                            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+                                            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        try {
+            PaymentWebhookService.Result result = paymentWebhookService.receive(body, signature, eventId);
+            return ResponseEntity.ok(result.name());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+}
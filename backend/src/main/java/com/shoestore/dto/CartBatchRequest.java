@@ -0,0 +1,31 @@
+package com.shoestore.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class CartBatchRequest {
+    
+    @NotEmpty
+    @Size(max = 100)
+    @Valid
+    private List<CartOperationDto> operations;
+    
+    // Constructors
+    public CartBatchRequest() {}
+    
+    public CartBatchRequest(List<CartOperationDto> operations) {
+        this.operations = operations;
+    }
+    
+    // Getters and Setters
+    public List<CartOperationDto> getOperations() {
+        return operations;
+    }
+    
+    public void setOperations(List<CartOperationDto> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,68 @@
+package com.shoestore.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class CartOperationDto {
+    
+    public enum Type {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+    
+    @NotNull
+    private Type type;
+    
+    // Required for UPDATE and REMOVE
+    private Long cartItemId;
+    
+    // Required for ADD
+    private Long productId;
+    
+    @Min(1)
+    private Integer quantity;
+    
+    // Constructors
+    public CartOperationDto() {}
+    
+    public CartOperationDto(Type type, Long cartItemId, Long productId, Integer quantity) {
+        this.type = type;
+        this.cartItemId = cartItemId;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+    
+    public void setCartItemId(Long cartItemId) {
+        this.cartItemId = cartItemId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
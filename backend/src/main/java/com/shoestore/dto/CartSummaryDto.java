@@ -0,0 +1,66 @@
+package com.shoestore.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CartSummaryDto {
+    
+    private List<CartSummaryLineDto> lines;
+    private Integer itemCount;
+    private BigDecimal subtotal;
+    private BigDecimal shipping;
+    private BigDecimal tax;
+    private BigDecimal total;
+    
+    // Constructors
+    public CartSummaryDto() {}
+    
+    // Getters and Setters
+    public List<CartSummaryLineDto> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<CartSummaryLineDto> lines) {
+        this.lines = lines;
+    }
+    
+    public Integer getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+    
+    public BigDecimal getShipping() {
+        return shipping;
+    }
+    
+    public void setShipping(BigDecimal shipping) {
+        this.shipping = shipping;
+    }
+    
+    public BigDecimal getTax() {
+        return tax;
+    }
+    
+    public void setTax(BigDecimal tax) {
+        this.tax = tax;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
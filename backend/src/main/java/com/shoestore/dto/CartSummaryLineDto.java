@@ -0,0 +1,85 @@
+package com.shoestore.dto;
+
+import java.math.BigDecimal;
+
+public class CartSummaryLineDto {
+    
+    private Long cartItemId;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal lineTotal;
+    private Boolean available;
+    
+    // Constructors
+    public CartSummaryLineDto() {}
+    
+    public CartSummaryLineDto(Long cartItemId, Long productId, String productName, Integer quantity,
+                              BigDecimal unitPrice, BigDecimal lineTotal, Boolean available) {
+        this.cartItemId = cartItemId;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.lineTotal = lineTotal;
+        this.available = available;
+    }
+    
+    // Getters and Setters
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+    
+    public void setCartItemId(Long cartItemId) {
+        this.cartItemId = cartItemId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
+    public BigDecimal getLineTotal() {
+        return lineTotal;
+    }
+    
+    public void setLineTotal(BigDecimal lineTotal) {
+        this.lineTotal = lineTotal;
+    }
+    
+    public Boolean getAvailable() {
+        return available;
+    }
+    
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+}
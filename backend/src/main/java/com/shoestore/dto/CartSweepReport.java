@@ -0,0 +1,60 @@
+package com.shoestore.dto;
+
+import java.time.LocalDateTime;
+
+public class CartSweepReport {
+    
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private int cartsRemoved;
+    private int itemsRemoved;
+    private int guestCartsRemoved;
+    
+    // Constructors
+    public CartSweepReport() {}
+    
+    public CartSweepReport(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    // Getters and Setters
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+    
+    public int getCartsRemoved() {
+        return cartsRemoved;
+    }
+    
+    public void setCartsRemoved(int cartsRemoved) {
+        this.cartsRemoved = cartsRemoved;
+    }
+    
+    public int getItemsRemoved() {
+        return itemsRemoved;
+    }
+    
+    public void setItemsRemoved(int itemsRemoved) {
+        this.itemsRemoved = itemsRemoved;
+    }
+    
+    public int getGuestCartsRemoved() {
+        return guestCartsRemoved;
+    }
+    
+    public void setGuestCartsRemoved(int guestCartsRemoved) {
+        this.guestCartsRemoved = guestCartsRemoved;
+    }
+}
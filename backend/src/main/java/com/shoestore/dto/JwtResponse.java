@@ -5,6 +5,7 @@ import com.shoestore.entity.Role;
 public class JwtResponse {
     
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private Long id;
     private String username;
@@ -36,6 +37,14 @@ public class JwtResponse {
         this.token = token;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
     public String getType() {
         return type;
     }
@@ -10,6 +10,9 @@ public class LoginRequest {
     @NotBlank
     private String password;
     
+    // Optional guest cart to merge into the user's cart after login
+    private String cartToken;
+    
     // Constructors
     public LoginRequest() {}
     
@@ -34,5 +37,13 @@ public class LoginRequest {
     public void setPassword(String password) {
         this.password = password;
     }
+    
+    public String getCartToken() {
+        return cartToken;
+    }
+    
+    public void setCartToken(String cartToken) {
+        this.cartToken = cartToken;
+    }
 }
 
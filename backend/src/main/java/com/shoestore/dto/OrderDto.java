@@ -36,6 +36,10 @@ public class OrderDto {
     
     private String phoneNumber;
     
+    private String gatewayOrderId;
+    
+    private BigDecimal gatewayOrderAmount;
+    
     private String paymentId;
     
     private String paymentStatus;
@@ -130,6 +134,22 @@ public class OrderDto {
         this.phoneNumber = phoneNumber;
     }
     
+    public String getGatewayOrderId() {
+        return gatewayOrderId;
+    }
+    
+    public void setGatewayOrderId(String gatewayOrderId) {
+        this.gatewayOrderId = gatewayOrderId;
+    }
+    
+    public BigDecimal getGatewayOrderAmount() {
+        return gatewayOrderAmount;
+    }
+    
+    public void setGatewayOrderAmount(BigDecimal gatewayOrderAmount) {
+        this.gatewayOrderAmount = gatewayOrderAmount;
+    }
+    
     public String getPaymentId() {
         return paymentId;
     }
@@ -0,0 +1,90 @@
+package com.shoestore.dto;
+
+public class PasswordHashingStats {
+    
+    private int strength;
+    private int threads;
+    private int activeCount;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private double averageMillis;
+    private double maxMillis;
+    
+    // Constructors
+    public PasswordHashingStats() {}
+    
+    // Getters and Setters
+    public int getStrength() {
+        return strength;
+    }
+    
+    public void setStrength(int strength) {
+        this.strength = strength;
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+    
+    public int getActiveCount() {
+        return activeCount;
+    }
+    
+    public void setActiveCount(int activeCount) {
+        this.activeCount = activeCount;
+    }
+    
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+    
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public long getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+    
+    public double getAverageMillis() {
+        return averageMillis;
+    }
+    
+    public void setAverageMillis(double averageMillis) {
+        this.averageMillis = averageMillis;
+    }
+    
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+    
+    public void setMaxMillis(double maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+}
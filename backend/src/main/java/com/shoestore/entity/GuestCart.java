@@ -0,0 +1,55 @@
+package com.shoestore.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "guest_carts")
+public class GuestCart {
+    
+    @Id
+    @Size(max = 64)
+    private String token;
+    
+    // Compact "productId:quantity,productId:quantity" encoding
+    @Size(max = 2000)
+    @Column(length = 2000)
+    private String items;
+    
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public GuestCart() {}
+    
+    public GuestCart(String token, String items) {
+        this.token = token;
+        this.items = items;
+    }
+    
+    // Getters and Setters
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public String getItems() {
+        return items;
+    }
+    
+    public void setItems(String items) {
+        this.items = items;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_gateway_order", columnList = "gatewayOrderId"),
+        @Index(name = "idx_orders_status_date", columnList = "status, orderDate")
+})
 public class Order {
     
     @Id
@@ -52,6 +55,13 @@ public class Order {
     @Size(max = 20)
     private String phoneNumber;
     
+    // Order id at the payment gateway, used to match checkout callbacks and webhooks
+    @Size(max = 100)
+    private String gatewayOrderId;
+    
+    // Amount the gateway order was created for; it is reused only while the total still matches
+    private BigDecimal gatewayOrderAmount;
+    
     @Size(max = 100)
     private String paymentId;
     
@@ -171,6 +181,22 @@ public class Order {
         this.phoneNumber = phoneNumber;
     }
     
+    public String getGatewayOrderId() {
+        return gatewayOrderId;
+    }
+    
+    public void setGatewayOrderId(String gatewayOrderId) {
+        this.gatewayOrderId = gatewayOrderId;
+    }
+    
+    public BigDecimal getGatewayOrderAmount() {
+        return gatewayOrderAmount;
+    }
+    
+    public void setGatewayOrderAmount(BigDecimal gatewayOrderAmount) {
+        this.gatewayOrderAmount = gatewayOrderAmount;
+    }
+    
     public String getPaymentId() {
         return paymentId;
     }
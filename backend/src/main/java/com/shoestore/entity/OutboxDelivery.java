@@ -0,0 +1,96 @@
+package com.shoestore.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Records that one consumer has handled one outbox event. Outbox ids are assigned at insert but
+ * become visible at commit, so a later id can be seen before an earlier one; delivery is tracked
+ * per event rather than inferred from the highest id handled.
+ */
+@Entity
+@Table(name = "outbox_deliveries")
+@IdClass(OutboxDelivery.Key.class)
+public class OutboxDelivery {
+    
+    public static class Key implements Serializable {
+        
+        private String consumer;
+        private Long eventId;
+        
+        public Key() {}
+        
+        public Key(String consumer, Long eventId) {
+            this.consumer = consumer;
+            this.eventId = eventId;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Objects.equals(consumer, key.consumer) && Objects.equals(eventId, key.eventId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(consumer, eventId);
+        }
+    }
+    
+    @Id
+    @Size(max = 100)
+    private String consumer;
+    
+    @Id
+    private Long eventId;
+    
+    private LocalDateTime deliveredAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        deliveredAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public OutboxDelivery() {}
+    
+    public OutboxDelivery(String consumer, Long eventId) {
+        this.consumer = consumer;
+        this.eventId = eventId;
+    }
+    
+    // Getters and Setters
+    public String getConsumer() {
+        return consumer;
+    }
+    
+    public void setConsumer(String consumer) {
+        this.consumer = consumer;
+    }
+    
+    public Long getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+    
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+    
+    public void setDeliveredAt(LocalDateTime deliveredAt) {
+        this.deliveredAt = deliveredAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.shoestore.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_offsets")
+public class OutboxOffset {
+    
+    @Id
+    @Size(max = 100)
+    private String consumer;
+    
+    private Long lastEventId = 0L;
+    
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public OutboxOffset() {}
+    
+    public OutboxOffset(String consumer, Long lastEventId) {
+        this.consumer = consumer;
+        this.lastEventId = lastEventId;
+    }
+    
+    // Getters and Setters
+    public String getConsumer() {
+        return consumer;
+    }
+    
+    public void setConsumer(String consumer) {
+        this.consumer = consumer;
+    }
+    
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+    
+    public void setLastEventId(Long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,132 @@
+package com.shoestore.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A payment event received from the gateway. The gateway's event id is the primary key, so a
+ * redelivered event fails to insert and is dropped; rows without {@code processedAt} are the queue
+ * of events still to be applied to orders.
+ */
+@Entity
+@Table(name = "payment_webhook_events", indexes = @Index(name = "idx_payment_webhook_pending", columnList = "processedAt, receivedAt"))
+public class PaymentWebhookEvent implements Persistable<String> {
+    
+    @Id
+    @Size(max = 100)
+    @Column(length = 100)
+    private String eventId;
+    
+    @Size(max = 50)
+    private String eventType;
+    
+    @Size(max = 100)
+    private String gatewayOrderId;
+    
+    @Size(max = 100)
+    private String paymentId;
+    
+    @Size(max = 100)
+    private String paymentStatus;
+    
+    private LocalDateTime receivedAt;
+    
+    private LocalDateTime processedAt;
+    
+    // The id is assigned by the gateway, so tell Spring Data to insert rather than merge
+    @Transient
+    private boolean isNew = true;
+    
+    @PrePersist
+    protected void onCreate() {
+        receivedAt = LocalDateTime.now();
+    }
+    
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        isNew = false;
+    }
+    
+    // Constructors
+    public PaymentWebhookEvent() {}
+    
+    public PaymentWebhookEvent(String eventId, String eventType, String gatewayOrderId,
+                               String paymentId, String paymentStatus) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.gatewayOrderId = gatewayOrderId;
+        this.paymentId = paymentId;
+        this.paymentStatus = paymentStatus;
+    }
+    
+    @Override
+    public String getId() {
+        return eventId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getGatewayOrderId() {
+        return gatewayOrderId;
+    }
+    
+    public void setGatewayOrderId(String gatewayOrderId) {
+        this.gatewayOrderId = gatewayOrderId;
+    }
+    
+    public String getPaymentId() {
+        return paymentId;
+    }
+    
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+    
+    public String getPaymentStatus() {
+        return paymentStatus;
+    }
+    
+    public void setPaymentStatus(String paymentStatus) {
+        this.paymentStatus = paymentStatus;
+    }
+    
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+    
+    public void setReceivedAt(LocalDateTime receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+    
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+    
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+}
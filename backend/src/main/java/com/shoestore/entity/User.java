@@ -49,6 +49,11 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role = Role.USER;
     
+    private Boolean enabled = true;
+    
+    // Bumped whenever issued tokens must stop working (role change, disable)
+    private Long tokenVersion = 0L;
+    
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
@@ -104,7 +109,7 @@ public class User implements UserDetails {
     
     @Override
     public boolean isEnabled() {
-        return true;
+        return !Boolean.FALSE.equals(enabled);
     }
     
     // Getters and Setters
@@ -172,6 +177,22 @@ public class User implements UserDetails {
         this.role = role;
     }
     
+    public Boolean getEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(Long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
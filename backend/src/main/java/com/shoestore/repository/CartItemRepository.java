@@ -4,6 +4,9 @@ import com.shoestore.entity.CartItem;
 import com.shoestore.entity.Product;
 import com.shoestore.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,8 +15,19 @@ import java.util.Optional;
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByUser(User user);
+    List<CartItem> findByUserIdOrderByIdAsc(Long userId);
     Optional<CartItem> findByUserAndProduct(User user, Product product);
-    void deleteByUser(User user);
-    void deleteByUserAndProduct(User user, Product product);
+    Optional<CartItem> findByUserIdAndProductId(Long userId, Long productId);
+    
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.user = :user")
+    int deleteByUser(@Param("user") User user);
+    
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.user = :user AND c.product = :product")
+    int deleteByUserAndProduct(@Param("user") User user, @Param("product") Product product);
 }
-
@@ -3,20 +3,50 @@ package com.shoestore.repository;
 import com.shoestore.entity.Order;
 import com.shoestore.entity.OrderStatus;
 import com.shoestore.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserOrderByOrderDateDesc(User user);
+    // Order DTOs need the items and their products; product images are left to batch fetching,
+    // since fetching a second list in the same query would multiply the rows
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    Optional<Order> findWithItemsById(Long id);
     List<Order> findByStatus(OrderStatus status);
     List<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    List<Order> findByGatewayOrderIdIn(Collection<String> gatewayOrderIds);
     
+    // Orders with a gateway order still waiting on payment, walked in id order from a cursor
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.gatewayOrderId IS NOT NULL " +
+           "AND o.id > :afterId AND o.orderDate BETWEEN :from AND :to ORDER BY o.id")
+    List<Order> findAwaitingPayment(@Param("status") OrderStatus status, @Param("afterId") Long afterId,
+                                    @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                    Pageable pageable);
+    
+    // Only replaces a missing or stale gateway order, so a concurrent creation for the same
+    // amount cannot overwrite the one already stored
+    @Modifying
+    @Query("UPDATE Order o SET o.gatewayOrderId = :gatewayOrderId, o.gatewayOrderAmount = :amount, " +
+           "o.updatedAt = :now WHERE o.id = :id AND (o.gatewayOrderId IS NULL " +
+           "OR o.gatewayOrderAmount IS NULL OR o.gatewayOrderAmount <> :amount)")
+    int attachGatewayOrderIfStale(@Param("id") Long id, @Param("gatewayOrderId") String gatewayOrderId,
+                                  @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+    
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
     @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC")
     List<Order> findAllOrderByOrderDateDesc();
     
@@ -0,0 +1,17 @@
+package com.shoestore.repository;
+
+import com.shoestore.entity.OutboxDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, OutboxDelivery.Key> {
+    
+    // Rows at or below the consumer's offset are implied by the offset
+    @Modifying
+    @Query("DELETE FROM OutboxDelivery d WHERE d.consumer = :consumer AND d.eventId <= :eventId")
+    int deleteUpTo(@Param("consumer") String consumer, @Param("eventId") Long eventId);
+}
@@ -0,0 +1,32 @@
+package com.shoestore.repository;
+
+import com.shoestore.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Events past the consumer's offset that it has not handled yet, in id order
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :offset AND NOT EXISTS " +
+           "(SELECT d FROM OutboxDelivery d WHERE d.consumer = :consumer AND d.eventId = e.id) ORDER BY e.id")
+    List<OutboxEvent> findUndelivered(@Param("consumer") String consumer, @Param("offset") Long offset, Pageable pageable);
+    
+    @Query("SELECT MIN(e.id) FROM OutboxEvent e WHERE e.id > :offset AND NOT EXISTS " +
+           "(SELECT d FROM OutboxDelivery d WHERE d.consumer = :consumer AND d.eventId = e.id)")
+    Long findFirstUndeliveredId(@Param("consumer") String consumer, @Param("offset") Long offset);
+    
+    @Query("SELECT MAX(e.id) FROM OutboxEvent e WHERE e.id > :offset AND e.id < :below AND e.createdAt < :settledBefore")
+    Long findLastSettledId(@Param("offset") Long offset, @Param("below") Long below,
+                           @Param("settledBefore") LocalDateTime settledBefore);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :id AND e.createdAt < :before")
+    int deleteDeliveredBefore(@Param("id") Long id, @Param("before") LocalDateTime before);
+}
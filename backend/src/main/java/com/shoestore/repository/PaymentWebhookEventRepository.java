@@ -0,0 +1,26 @@
+package com.shoestore.repository;
+
+import com.shoestore.entity.PaymentWebhookEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, String> {
+    List<PaymentWebhookEvent> findByProcessedAtIsNullOrderByReceivedAtAsc(Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.processedAt = :now WHERE e.eventId IN :eventIds")
+    int markProcessed(@Param("eventIds") Collection<String> eventIds, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM PaymentWebhookEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -3,21 +3,34 @@ package com.shoestore.repository;
 import com.shoestore.entity.Category;
 import com.shoestore.entity.Gender;
 import com.shoestore.entity.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    // Methods that feed ProductDto fetch imageUrls with the products, since DTOs are built inside the transaction
+    @EntityGraph(attributePaths = "imageUrls")
     List<Product> findByGenderAndIsActiveTrue(Gender gender);
+    @EntityGraph(attributePaths = "imageUrls")
     List<Product> findByCategoryAndIsActiveTrue(Category category);
+    @EntityGraph(attributePaths = "imageUrls")
     List<Product> findByGenderAndCategoryAndIsActiveTrue(Gender gender, Category category);
     List<Product> findByBrandAndIsActiveTrue(String brand);
+    @EntityGraph(attributePaths = "imageUrls")
     List<Product> findByIsActiveTrue();
+    @EntityGraph(attributePaths = "imageUrls")
+    Optional<Product> findWithImagesById(Long id);
+    @EntityGraph(attributePaths = "imageUrls")
+    List<Product> findWithImagesByIdIn(Collection<Long> ids);
     
+    @EntityGraph(attributePaths = "imageUrls")
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
@@ -27,7 +40,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.stockQuantity > 0")
     List<Product> findAvailableProducts();
     
+    @EntityGraph(attributePaths = "imageUrls")
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.stockQuantity <= :threshold")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
+    
+    @Query("SELECT p.id, p.price, p.stockQuantity, p.isActive, p.name FROM Product p")
+    List<Object[]> findPriceRows();
 }
 
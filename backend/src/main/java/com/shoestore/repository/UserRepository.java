@@ -2,8 +2,12 @@ package com.shoestore.repository;
 
 import com.shoestore.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +16,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+    
+    @Query("SELECT u.username, u.email FROM User u")
+    List<Object[]> findUsernamesAndEmails();
+    
+    @Query("SELECT u.id, u.tokenVersion, u.enabled FROM User u")
+    List<Object[]> findTokenStates();
 }
 
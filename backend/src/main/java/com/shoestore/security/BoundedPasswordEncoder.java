@@ -0,0 +1,154 @@
+package com.shoestore.security;
+
+import com.shoestore.dto.PasswordHashingStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BCrypt on a small dedicated pool, so a burst of logins or signups queues here instead of
+ * holding every request thread. When the queue is full, or a hash waits longer than the
+ * configured timeout, the call fails fast with {@link PasswordHashingBusyException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+    
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final int queueCapacity;
+    private final long waitTimeoutMs;
+    private final ThreadPoolExecutor executor;
+    
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long waitTimeoutMs) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.queueCapacity = queueCapacity;
+        this.waitTimeoutMs = waitTimeoutMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Picks the lowest BCrypt strength, starting at {@code minimum}, whose hash takes at least
+     * {@code targetMillis} on this machine. Each extra round doubles the cost.
+     */
+    public static int calibrate(int minimum, int maximum, long targetMillis) {
+        int strength = minimum;
+        while (strength < maximum) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsedMillis >= targetMillis) {
+                break;
+            }
+            strength++;
+        }
+        logger.info("Using BCrypt strength {} for a target of {} ms", strength, targetMillis);
+        return strength;
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+    
+    /**
+     * True for hashes made with a lower strength than the current one, so the authentication
+     * provider re-hashes the password on the next successful login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    public PasswordHashingStats getStats() {
+        long done = completed.get();
+        PasswordHashingStats stats = new PasswordHashingStats();
+        stats.setStrength(strength);
+        stats.setThreads(executor.getCorePoolSize());
+        stats.setActiveCount(executor.getActiveCount());
+        stats.setQueueDepth(executor.getQueue().size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setCompleted(done);
+        stats.setRejected(rejected.get());
+        stats.setAverageMillis(done == 0 ? 0 : totalNanos.get() / (double) done / 1_000_000);
+        stats.setMaxMillis(maxNanos.get() / 1_000_000.0);
+        return stats;
+    }
+    
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    record(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHashingBusyException("Too many sign-in requests, please retry shortly");
+        }
+        
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new PasswordHashingBusyException("Too many sign-in requests, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Password check was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+    
+    private void record(long nanos) {
+        completed.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
@@ -0,0 +1,59 @@
+package com.shoestore.security;
+
+import com.shoestore.entity.Role;
+import com.shoestore.entity.User;
+import com.shoestore.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the signed-in user from the principal the JWT filter put on the request. The id and
+ * role come from the token, so nothing here queries the users table.
+ */
+@Component
+public class CurrentUserResolver {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    public Long getUserId() {
+        Object principal = getPrincipal();
+        if (principal instanceof JwtPrincipal) {
+            return ((JwtPrincipal) principal).getId();
+        }
+        return ((User) principal).getId();
+    }
+    
+    public Role getRole() {
+        Object principal = getPrincipal();
+        if (principal instanceof JwtPrincipal) {
+            return ((JwtPrincipal) principal).getRole();
+        }
+        return ((User) principal).getRole();
+    }
+    
+    public boolean isAdmin() {
+        return getRole() == Role.ADMIN;
+    }
+    
+    /**
+     * Returns an uninitialized reference to the current user, for use as an association value.
+     */
+    public User getUserReference() {
+        return userRepository.getReferenceById(getUserId());
+    }
+    
+    private Object getPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new RuntimeException("User not found");
+        }
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof JwtPrincipal) && !(principal instanceof User)) {
+            throw new RuntimeException("User not found");
+        }
+        return principal;
+    }
+}
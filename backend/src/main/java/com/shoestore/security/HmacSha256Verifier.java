@@ -0,0 +1,178 @@
+package com.shoestore.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Verifies hex HMAC-SHA256 signatures, as used by Razorpay for checkout and webhooks. The key is
+ * set up once; each call borrows a clone of the keyed {@link Mac} plus reusable buffers from a
+ * pool, so a verification of ASCII input allocates nothing. The pool replaces a ThreadLocal, which
+ * would clone the Mac on every call when each request runs on a fresh virtual thread. Signatures
+ * are compared in constant time.
+ */
+public class HmacSha256Verifier {
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 32;
+    private static final int SCRATCH_BYTES = 256;
+    
+    private final SecretKeySpec keySpec;
+    private final Mac prototype;
+    // Grows to the peak number of concurrent calls; a state is dropped if a call fails midway
+    private final Queue<State> idle = new ConcurrentLinkedQueue<>();
+    
+    private static final class State {
+        private final Mac mac;
+        private final byte[] scratch = new byte[SCRATCH_BYTES];
+        private final byte[] digest = new byte[SIGNATURE_BYTES];
+        
+        State(Mac mac) {
+            this.mac = mac;
+        }
+    }
+    
+    public HmacSha256Verifier(String secret) {
+        this(secret.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public HmacSha256Verifier(byte[] key) {
+        keySpec = new SecretKeySpec(key, ALGORITHM);
+        prototype = keyedMac();
+    }
+    
+    /**
+     * Checks a Razorpay checkout signature, the HMAC of {@code orderId|paymentId}, without
+     * concatenating the two.
+     */
+    public boolean verifyPayment(String orderId, String paymentId, String signature) {
+        if (orderId == null || paymentId == null) {
+            return false;
+        }
+        State current = acquire();
+        update(current, orderId);
+        current.mac.update((byte) '|');
+        update(current, paymentId);
+        return finish(current, signature);
+    }
+    
+    public boolean verify(String payload, String signature) {
+        if (payload == null) {
+            return false;
+        }
+        State current = acquire();
+        update(current, payload);
+        return finish(current, signature);
+    }
+    
+    public boolean verify(byte[] payload, String signature) {
+        if (payload == null) {
+            return false;
+        }
+        State current = acquire();
+        current.mac.update(payload);
+        return finish(current, signature);
+    }
+    
+    public String sign(String payload) {
+        State current = acquire();
+        update(current, payload);
+        try {
+            current.mac.doFinal(current.digest, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        String signature = HexFormat.of().formatHex(current.digest);
+        idle.offer(current);
+        return signature;
+    }
+    
+    private State acquire() {
+        State current = idle.poll();
+        return current != null ? current : new State(newMac());
+    }
+    
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // Some providers cannot clone; key a fresh instance instead
+            return keyedMac();
+        }
+    }
+    
+    private Mac keyedMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(keySpec);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+    
+    // Feeds ASCII strings through the scratch buffer; anything else is encoded as UTF-8
+    private static void update(State current, String value) {
+        int length = value.length();
+        int offset = 0;
+        while (offset < length) {
+            int chunk = Math.min(SCRATCH_BYTES, length - offset);
+            for (int i = 0; i < chunk; i++) {
+                char c = value.charAt(offset + i);
+                if (c > 0x7f) {
+                    current.mac.update(current.scratch, 0, i);
+                    current.mac.update(value.substring(offset + i).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                current.scratch[i] = (byte) c;
+            }
+            current.mac.update(current.scratch, 0, chunk);
+            offset += chunk;
+        }
+    }
+    
+    // Completes the MAC and returns the state to the pool
+    private boolean finish(State current, String signature) {
+        try {
+            current.mac.doFinal(current.digest, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        boolean valid = matches(current.digest, signature);
+        idle.offer(current);
+        return valid;
+    }
+    
+    private static boolean matches(byte[] digest, String signature) {
+        if (signature == null || signature.length() != SIGNATURE_BYTES * 2) {
+            return false;
+        }
+        // Accumulate every difference so timing does not depend on where a mismatch is
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_BYTES; i++) {
+            int high = hexValue(signature.charAt(2 * i));
+            int low = hexValue(signature.charAt(2 * i + 1));
+            diff |= (high | low) & 0x100;
+            diff |= ((high << 4) | low) ^ (digest[i] & 0xff);
+        }
+        return diff == 0;
+    }
+    
+    // Returns 0-15, or a value with bit 8 set for a non-hex character
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return 0x100;
+    }
+}
@@ -0,0 +1,52 @@
+package com.shoestore.security;
+
+import com.shoestore.entity.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user built from the claims of a verified token, so requests are authenticated
+ * without loading the {@code User} entity.
+ */
+public class JwtPrincipal implements AuthenticatedPrincipal {
+    
+    private final Long id;
+    private final String username;
+    private final Role role;
+    
+    public JwtPrincipal(Long id, String username, Role role) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+    }
+    
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+    
+    @Override
+    public String getName() {
+        return username;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -1,28 +1,73 @@
 package com.shoestore.security;
 
+import com.shoestore.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
     
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    // Verified claims keyed by the SHA-256 digest of the token, so raw tokens are not kept around
+    private final Map<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+        
+        VerifiedToken(Claims claims) {
+            this.claims = claims;
+            this.expiresAt = claims.getExpiration().getTime();
+        }
+        
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
     public String extractUsername(String token) {
@@ -34,40 +79,95 @@ public class JwtUtil {
     }
     
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the signature and expiry of a token once and returns its claims. Verified claims
+     * are cached until the token expires. Throws a {@link JwtException} for any invalid token.
+     */
+    public Claims verify(String token) {
+        ByteBuffer key = digest(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                cacheHits.increment();
+                return cached.claims;
+            }
+            verifiedTokens.remove(key, cached);
+        }
+        
+        cacheMisses.increment();
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            cache(key, new VerifiedToken(claims));
+        }
+        return claims;
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public int cachedTokenCount() {
+        return verifiedTokens.size();
     }
     
-    public String generateToken(UserDetails userDetails) {
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+    
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+    
+    public String generateToken(User user, long tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
+        return createToken(claims, user.getUsername());
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    // Expired tokens are dropped here rather than on the request path
+    @Scheduled(fixedDelayString = "${jwt.cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        verifiedTokens.values().removeIf(token -> token.isExpired(now));
+    }
+    
+    private void cache(ByteBuffer key, VerifiedToken token) {
+        // jwt.cache.max-entries 0 turns the cache off
+        if (cacheMaxEntries <= 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= cacheMaxEntries) {
+            // Full of live tokens: make room by dropping one arbitrary entry, which costs the
+            // victim a single re-verification
+            Iterator<ByteBuffer> iterator = verifiedTokens.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        verifiedTokens.put(key, token);
+    }
+    
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
-
@@ -0,0 +1,28 @@
+package com.shoestore.security;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing pool is saturated and a login or signup is turned away.
+ * It is an {@link InternalAuthenticationServiceException}, which Spring Security's providers and
+ * {@code ProviderManager} rethrow unchanged, so a busy pool is never reported as bad credentials
+ * and no other provider hashes the password again. Controllers map it to 503 with Retry-After.
+ */
+public class PasswordHashingBusyException extends InternalAuthenticationServiceException {
+    
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+    
+    /**
+     * Finds a busy rejection in the cause chain, for callers that receive it wrapped.
+     */
+    public static PasswordHashingBusyException find(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingBusyException) {
+                return (PasswordHashingBusyException) cause;
+            }
+        }
+        return null;
+    }
+}
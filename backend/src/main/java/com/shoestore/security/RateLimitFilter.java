@@ -0,0 +1,178 @@
+package com.shoestore.security;
+
+import com.shoestore.config.RateLimitProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Token-bucket rate limits per client and route, configured under {@code rate-limit.rules}. Runs
+ * after the JWT filter so "user" rules can key on the authenticated user id. Every matching rule
+ * must have a token for the request to pass; rejections answer 429 from a preallocated body.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final byte[] REJECTED_BODY = "{\"error\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+    
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    
+    @Autowired
+    private RateLimitProperties properties;
+    
+    private final long epoch = System.currentTimeMillis();
+    
+    private List<Limit> limits = new ArrayList<>();
+    
+    private final LongAdder rejected = new LongAdder();
+    
+    private static final class Limit {
+        private final String pattern;
+        private final Set<String> methods;
+        private final boolean perUser;
+        private final int capacity;
+        private final double tokensPerMs;
+        private final String retryAfterSeconds;
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final TokenBucket overflow;
+        
+        Limit(RateLimitProperties.Rule rule, long now, long epoch) {
+            this.pattern = rule.getPattern();
+            this.methods = rule.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            this.perUser = "user".equalsIgnoreCase(rule.getKey());
+            this.capacity = rule.getCapacity();
+            this.tokensPerMs = rule.getRefillPerMinute() / 60000.0;
+            this.retryAfterSeconds = String.valueOf((long) Math.ceil(60.0 / rule.getRefillPerMinute()));
+            this.overflow = new TokenBucket(now, epoch, capacity);
+        }
+        
+        boolean matches(String method, String path) {
+            return (methods.isEmpty() || methods.contains(method)) && PATH_MATCHER.match(pattern, path);
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        long now = System.currentTimeMillis();
+        List<Limit> configured = new ArrayList<>();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            if (rule.getCapacity() < 1 || rule.getCapacity() > TokenBucket.MAX_CAPACITY || rule.getRefillPerMinute() < 1) {
+                throw new IllegalStateException("Invalid rate limit rule: " + rule.getName());
+            }
+            configured.add(new Limit(rule, now, epoch));
+        }
+        limits = configured;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || "OPTIONS".equals(request.getMethod());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        long now = System.currentTimeMillis();
+        
+        String ipKey = null;
+        String userKey = null;
+        for (Limit limit : limits) {
+            if (!limit.matches(method, path)) {
+                continue;
+            }
+            String key;
+            if (limit.perUser && (userKey != null || (userKey = resolveUserKey()) != null)) {
+                key = userKey;
+            } else {
+                key = ipKey != null ? ipKey : (ipKey = resolveIpKey(request));
+            }
+            if (!bucketFor(limit, key, now).tryConsume(now, epoch, limit.capacity, limit.tokensPerMs)) {
+                reject(response, limit);
+                return;
+            }
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    /**
+     * Drops buckets that have refilled completely; a new bucket would be in the same state.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (Limit limit : limits) {
+            limit.buckets.values().removeIf(bucket -> bucket.isFull(now, epoch, limit.capacity, limit.tokensPerMs));
+        }
+    }
+    
+    public int trackedClients() {
+        return limits.stream().mapToInt(limit -> limit.buckets.size()).sum();
+    }
+    
+    public long rejectedRequests() {
+        return rejected.sum();
+    }
+    
+    private TokenBucket bucketFor(Limit limit, String key, long now) {
+        TokenBucket bucket = limit.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (limit.buckets.size() >= properties.getMaxClients()) {
+            return limit.overflow;
+        }
+        return limit.buckets.computeIfAbsent(key, k -> new TokenBucket(now, epoch, limit.capacity));
+    }
+    
+    private String resolveUserKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal) {
+            return "u:" + ((JwtPrincipal) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+    
+    private String resolveIpKey(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+    
+    private void reject(HttpServletResponse response, Limit limit) throws IOException {
+        rejected.increment();
+        response.setStatus(429);
+        response.setHeader("Retry-After", limit.retryAfterSeconds);
+        response.setContentType("application/json");
+        response.setContentLength(REJECTED_BODY.length);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+}
@@ -0,0 +1,62 @@
+package com.shoestore.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket packed into one {@link AtomicLong}: the upper 40 bits hold the last
+ * refill time in milliseconds since {@code epoch}, the lower 24 bits the token count in 1/256ths
+ * of a token. Capacity is therefore limited to {@link #MAX_CAPACITY} tokens.
+ */
+public final class TokenBucket {
+    
+    public static final int MAX_CAPACITY = 65535;
+    
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long SCALE = 256;
+    
+    private final AtomicLong state;
+    
+    public TokenBucket(long now, long epoch, int capacity) {
+        this.state = new AtomicLong(pack(now - epoch, capacity * SCALE));
+    }
+    
+    /**
+     * Takes one token if available. A rejected call only reads the state.
+     */
+    public boolean tryConsume(long now, long epoch, int capacity, double tokensPerMs) {
+        long elapsedSinceEpoch = now - epoch;
+        long maxUnits = capacity * SCALE;
+        while (true) {
+            long current = state.get();
+            long last = current >>> TOKEN_BITS;
+            long units = current & TOKEN_MASK;
+            
+            long refill = elapsedSinceEpoch > last ? (long) ((elapsedSinceEpoch - last) * tokensPerMs * SCALE) : 0;
+            if (refill > 0) {
+                units = Math.min(maxUnits, units + refill);
+                last = elapsedSinceEpoch;
+            }
+            if (units < SCALE) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack(last, units - SCALE))) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * True when the bucket would be full by {@code now}, so dropping it loses nothing.
+     */
+    public boolean isFull(long now, long epoch, int capacity, double tokensPerMs) {
+        long current = state.get();
+        long units = current & TOKEN_MASK;
+        long elapsed = Math.max(0, now - epoch - (current >>> TOKEN_BITS));
+        return units + elapsed * tokensPerMs * SCALE >= capacity * SCALE;
+    }
+    
+    private static long pack(long time, long units) {
+        return (time << TOKEN_BITS) | units;
+    }
+}
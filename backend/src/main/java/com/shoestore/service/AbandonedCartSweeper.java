@@ -0,0 +1,116 @@
+package com.shoestore.service;
+
+import com.shoestore.dto.CartSweepReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Removes carts nobody has touched for {@code cart.sweeper.max-idle-days}. Work is done in
+ * bounded batches of users so a large backlog never turns into one long-running delete.
+ */
+@Service
+public class AbandonedCartSweeper {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Value("${cart.sweeper.max-idle-days:30}")
+    private long maxIdleDays;
+    
+    @Value("${cart.guest.retention-days:7}")
+    private long guestRetentionDays;
+    
+    @Value("${cart.sweeper.batch-size:500}")
+    private int batchSize;
+    
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    
+    @Scheduled(cron = "${cart.sweeper.cron:0 30 3 * * *}")
+    public void scheduledSweep() {
+        sweep();
+    }
+    
+    // A lock rather than synchronized: the sweep runs JDBC calls while holding it, which would pin a virtual thread
+    public CartSweepReport sweep() {
+        sweepLock.lock();
+        try {
+            return sweepBatches();
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+    
+    private CartSweepReport sweepBatches() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        CartSweepReport report = new CartSweepReport(startedAt);
+        Timestamp cutoff = Timestamp.valueOf(startedAt.minusDays(maxIdleDays));
+        
+        // Rows written before cart_items had timestamps start ageing from the first sweep
+        jdbcTemplate.update("UPDATE cart_items SET updated_at = ? WHERE updated_at IS NULL", Timestamp.valueOf(startedAt));
+        
+        while (true) {
+            List<Long> userIds = jdbcTemplate.queryForList(
+                    "SELECT user_id FROM cart_items GROUP BY user_id HAVING MAX(updated_at) < ? LIMIT ?",
+                    Long.class, cutoff, batchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            // Only rows older than the cutoff go, so an item added meanwhile survives
+            int removed = jdbcTemplate.update("DELETE FROM cart_items WHERE user_id IN (" + placeholders(userIds.size())
+                    + ") AND updated_at < ?", append(userIds.toArray(), cutoff));
+            cartStore.forget(userIds);
+            report.setCartsRemoved(report.getCartsRemoved() + userIds.size());
+            report.setItemsRemoved(report.getItemsRemoved() + removed);
+            if (userIds.size() < batchSize) {
+                break;
+            }
+        }
+        
+        Timestamp guestCutoff = Timestamp.valueOf(startedAt.minusDays(guestRetentionDays));
+        while (true) {
+            List<String> tokens = jdbcTemplate.queryForList(
+                    "SELECT token FROM guest_carts WHERE updated_at < ? LIMIT ?", String.class, guestCutoff, batchSize);
+            if (tokens.isEmpty()) {
+                break;
+            }
+            report.setGuestCartsRemoved(report.getGuestCartsRemoved() + jdbcTemplate.update(
+                    "DELETE FROM guest_carts WHERE token IN (" + placeholders(tokens.size()) + ")", tokens.toArray()));
+            if (tokens.size() < batchSize) {
+                break;
+            }
+        }
+        
+        report.setDurationMs(Duration.between(startedAt, LocalDateTime.now()).toMillis());
+        logger.info("Cart sweep removed {} carts ({} items) and {} guest carts in {} ms",
+                report.getCartsRemoved(), report.getItemsRemoved(), report.getGuestCartsRemoved(), report.getDurationMs());
+        return report;
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+    
+    private static Object[] append(Object[] values, Object last) {
+        Object[] result = new Object[values.length + 1];
+        System.arraycopy(values, 0, result, 0, values.length);
+        result[values.length] = last;
+        return result;
+    }
+}
@@ -7,7 +7,13 @@ import com.shoestore.entity.Role;
 import com.shoestore.entity.User;
 import com.shoestore.repository.UserRepository;
 import com.shoestore.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -15,9 +21,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 public class AuthService {
     
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+    
     @Autowired
     private AuthenticationManager authenticationManager;
     
@@ -30,28 +41,79 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private TokenVersionService tokenVersionService;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+    
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+    
+    @Timed
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtil.generateToken((org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal());
+        User user = (User) authentication.getPrincipal();
+        String jwt = jwtUtil.generateToken(user, tokenVersionService.currentVersion(user));
         
-        User user = userRepository.findByUsername(loginRequest.getUsername()).orElseThrow();
+        if (loginRequest.getCartToken() != null && !loginRequest.getCartToken().isBlank()) {
+            try {
+                cartService.mergeGuestCart(user.getId(), loginRequest.getCartToken());
+            } catch (Exception e) {
+                // A stale or unknown guest cart must not block the login
+                logger.warn("Could not merge guest cart for user {}: {}", user.getId(), e.getMessage());
+            }
+        }
         
-        return new JwtResponse(jwt, user.getId(), user.getUsername(), user.getEmail(),
+        return toJwtResponse(user, jwt, refreshTokenService.issue(user));
+    }
+    
+    /**
+     * Issues a new access token and rotates the refresh token, without re-checking the password.
+     */
+    @Timed
+    public JwtResponse refreshToken(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken)
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        User user = rotation.getUser();
+        String jwt = jwtUtil.generateToken(user, tokenVersionService.currentVersion(user));
+        return toJwtResponse(user, jwt, rotation.getRefreshToken());
+    }
+    
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtUtil.verify(accessToken);
+                revokedTokenRegistry.revoke(claims.getId(), claims.getExpiration());
+            } catch (JwtException e) {
+                // Already expired or invalid, nothing left to revoke
+            }
+        }
+    }
+    
+    private JwtResponse toJwtResponse(User user, String jwt, String refreshToken) {
+        JwtResponse response = new JwtResponse(jwt, user.getId(), user.getUsername(), user.getEmail(),
                 user.getFirstName(), user.getLastName(), user.getRole());
+        response.setRefreshToken(refreshToken);
+        return response;
     }
     
+    /**
+     * Creates the user and lets the unique indexes on username and email reject duplicates, so
+     * two concurrent signups for the same name cannot both pass a check-then-insert.
+     */
+    @Timed
     public User registerUser(SignupRequest signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            throw new RuntimeException("Error: Username is already taken!");
-        }
-        
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            throw new RuntimeException("Error: Email is already in use!");
-        }
-        
         User user = new User(signUpRequest.getUsername(), signUpRequest.getEmail(),
                 passwordEncoder.encode(signUpRequest.getPassword()),
                 signUpRequest.getFirstName(), signUpRequest.getLastName());
@@ -59,7 +121,33 @@ public class AuthService {
         user.setPhoneNumber(signUpRequest.getPhoneNumber());
         user.setRole(Role.USER);
         
-        return userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Only the failing path pays for working out which constraint was hit
+            if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+                throw new RuntimeException("Error: Username is already taken!");
+            }
+            if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+                throw new RuntimeException("Error: Email is already in use!");
+            }
+            throw e;
+        }
+        
+        tokenVersionService.register(savedUser);
+        userAvailabilityService.registered(savedUser.getUsername(), savedUser.getEmail());
+        return savedUser;
+    }
+    
+    public Map<String, Boolean> checkAvailability(String username, String email) {
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+        if (username != null && !username.isBlank()) {
+            availability.put("username", userAvailabilityService.isUsernameAvailable(username));
+        }
+        if (email != null && !email.isBlank()) {
+            availability.put("email", userAvailabilityService.isEmailAvailable(email));
+        }
+        return availability;
     }
 }
-
@@ -0,0 +1,29 @@
+package com.shoestore.service;
+
+/**
+ * One line of a cart as seen by {@link CartService}, independent of how the cart is stored.
+ */
+public class CartLine {
+    
+    private final Long id;
+    private final Long productId;
+    private final int quantity;
+    
+    public CartLine(Long id, Long productId, int quantity) {
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+}
@@ -1,21 +1,25 @@
 package com.shoestore.service;
 
 import com.shoestore.dto.CartItemDto;
+import com.shoestore.dto.CartOperationDto;
+import com.shoestore.dto.CartSummaryDto;
 import com.shoestore.dto.ProductDto;
-import com.shoestore.entity.CartItem;
 import com.shoestore.entity.Product;
-import com.shoestore.entity.User;
-import com.shoestore.repository.CartItemRepository;
 import com.shoestore.repository.ProductRepository;
-import com.shoestore.repository.UserRepository;
+import com.shoestore.security.CurrentUserResolver;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,107 +27,275 @@ import java.util.stream.Collectors;
 public class CartService {
     
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
+    
+    @Autowired
+    private GuestCartStore guestCartStore;
+    
+    @Autowired
+    private PricingEngine pricingEngine;
     
     @Autowired
     private ProductRepository productRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUser;
     
+    @Transactional(readOnly = true)
+    @Timed
     public List<CartItemDto> getCartItems() {
-        User user = getCurrentUser();
-        return cartItemRepository.findByUser(user).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Long userId = currentUser.getUserId();
+        List<CartLine> lines = cartStore.getLines(userId);
+        if (lines.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<Long> productIds = lines.stream().map(CartLine::getProductId).collect(Collectors.toSet());
+        return convertToDtos(lines, findProducts(productIds));
+    }
+    
+    @Transactional(readOnly = true)
+    @Timed
+    public CartSummaryDto getCartSummary() {
+        Long userId = currentUser.getUserId();
+        return pricingEngine.price(cartStore.getLines(userId));
     }
     
+    @Transactional(readOnly = true)
+    public List<CartLine> getCartLines(Long userId) {
+        return cartStore.getLines(userId);
+    }
+    
+    @Timed
     public CartItemDto addToCart(Long productId, Integer quantity) {
-        User user = getCurrentUser();
-        Product product = productRepository.findById(productId)
+        Long userId = currentUser.getUserId();
+        Product product = productRepository.findWithImagesById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
         
         if (product.getStockQuantity() < quantity) {
             throw new RuntimeException("Insufficient stock");
         }
         
-        Optional<CartItem> existingCartItem = cartItemRepository.findByUserAndProduct(user, product);
+        CartLine line = cartStore.addQuantity(userId, productId, quantity);
+        return convertToDto(line, product);
+    }
+    
+    @Timed
+    public CartItemDto updateCartItem(Long cartItemId, Integer quantity) {
+        Long userId = currentUser.getUserId();
+        CartLine line = cartStore.getLine(userId, cartItemId);
+        Product product = productRepository.findWithImagesById(line.getProductId())
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + line.getProductId()));
+        
+        if (product.getStockQuantity() < quantity) {
+            throw new RuntimeException("Insufficient stock");
+        }
+        
+        CartLine updatedLine = cartStore.setQuantity(userId, cartItemId, quantity);
+        return convertToDto(updatedLine, product);
+    }
+    
+    public void removeFromCart(Long cartItemId) {
+        Long userId = currentUser.getUserId();
+        cartStore.removeLine(userId, cartItemId);
+    }
+    
+    public void clearCart() {
+        clearCart(currentUser.getUserId());
+    }
+    
+    public void clearCart(Long userId) {
+        cartStore.clear(userId);
+    }
+    
+    @Timed
+    public List<CartItemDto> applyBatch(List<CartOperationDto> operations) {
+        Long userId = currentUser.getUserId();
+        List<CartLine> lines = cartStore.getLines(userId);
+        
+        Map<Long, CartLine> linesById = new HashMap<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartLine line : lines) {
+            linesById.put(line.getId(), line);
+            quantities.put(line.getProductId(), line.getQuantity());
+        }
         
-        if (existingCartItem.isPresent()) {
-            CartItem cartItem = existingCartItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
-            CartItem savedCartItem = cartItemRepository.save(cartItem);
-            return convertToDto(savedCartItem);
-        } else {
-            CartItem newCartItem = new CartItem(user, product, quantity);
-            CartItem savedCartItem = cartItemRepository.save(newCartItem);
-            return convertToDto(savedCartItem);
+        // Resolve every operation to a final quantity per product before touching the store
+        Map<Long, Integer> changes = new LinkedHashMap<>();
+        for (CartOperationDto operation : operations) {
+            Long productId;
+            int quantity;
+            switch (operation.getType()) {
+                case ADD:
+                    productId = requireValue(operation.getProductId(), "productId");
+                    quantity = quantities.getOrDefault(productId, 0) + requireValue(operation.getQuantity(), "quantity");
+                    break;
+                case UPDATE:
+                    productId = findLine(linesById, operation.getCartItemId()).getProductId();
+                    quantity = requireValue(operation.getQuantity(), "quantity");
+                    break;
+                default:
+                    productId = findLine(linesById, operation.getCartItemId()).getProductId();
+                    quantity = 0;
+                    break;
+            }
+            quantities.put(productId, quantity);
+            changes.put(productId, quantity);
         }
+        
+        Map<Long, Product> products = findProducts(quantities.keySet());
+        changes.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+            if (quantity > 0 && product.getStockQuantity() < quantity) {
+                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+            }
+        });
+        
+        return convertToDtos(cartStore.applyChanges(userId, changes), products);
     }
     
-    public CartItemDto updateCartItem(Long cartItemId, Integer quantity) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found with id: " + cartItemId));
+    public String createGuestCart() {
+        return guestCartStore.create();
+    }
+    
+    public List<CartItemDto> getGuestCartItems(String cartToken) {
+        List<CartLine> lines = toLines(guestCartStore.snapshot(cartToken));
+        if (lines.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        User currentUser = getCurrentUser();
-        if (!cartItem.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to cart item");
+        Set<Long> productIds = lines.stream().map(CartLine::getProductId).collect(Collectors.toSet());
+        return convertToDtos(lines, findProducts(productIds));
+    }
+    
+    public CartItemDto addToGuestCart(String cartToken, Long productId, Integer quantity) {
+        Product product = productRepository.findWithImagesById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        
+        if (product.getStockQuantity() < quantity) {
+            throw new RuntimeException("Insufficient stock");
         }
         
-        if (cartItem.getProduct().getStockQuantity() < quantity) {
+        int total = guestCartStore.add(cartToken, productId, quantity);
+        return convertToDto(new CartLine(productId, productId, total), product);
+    }
+    
+    public CartItemDto updateGuestCartItem(String cartToken, Long productId, Integer quantity) {
+        Product product = productRepository.findWithImagesById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        
+        if (product.getStockQuantity() < quantity) {
             throw new RuntimeException("Insufficient stock");
         }
         
-        cartItem.setQuantity(quantity);
-        CartItem savedCartItem = cartItemRepository.save(cartItem);
-        return convertToDto(savedCartItem);
+        if (!guestCartStore.set(cartToken, productId, quantity)) {
+            throw new RuntimeException("Cart item not found with id: " + productId);
+        }
+        return convertToDto(new CartLine(productId, productId, quantity), product);
     }
     
-    public void removeFromCart(Long cartItemId) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found with id: " + cartItemId));
+    public void removeFromGuestCart(String cartToken, Long productId) {
+        if (!guestCartStore.remove(cartToken, productId)) {
+            throw new RuntimeException("Cart item not found with id: " + productId);
+        }
+    }
+    
+    /**
+     * Moves a guest cart into the user's cart with one batched store update. Quantities for
+     * products already in the cart are added up and capped at the available stock.
+     */
+    public void mergeGuestCart(Long userId, String cartToken) {
+        CompactCart guestCart = guestCartStore.take(cartToken);
+        if (guestCart.size() == 0) {
+            return;
+        }
         
-        User currentUser = getCurrentUser();
-        if (!cartItem.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to cart item");
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartLine line : cartStore.getLines(userId)) {
+            quantities.put(line.getProductId(), line.getQuantity());
         }
+        Set<Long> productIds = new HashSet<>(quantities.keySet());
+        for (int i = 0; i < guestCart.size(); i++) {
+            productIds.add(guestCart.productIdAt(i));
+        }
+        Map<Long, Product> products = findProducts(productIds);
         
-        cartItemRepository.delete(cartItem);
+        Map<Long, Integer> changes = new LinkedHashMap<>();
+        for (int i = 0; i < guestCart.size(); i++) {
+            Product product = products.get(guestCart.productIdAt(i));
+            if (product == null || !Boolean.TRUE.equals(product.getIsActive())) {
+                continue;
+            }
+            int merged = Math.min(quantities.getOrDefault(product.getId(), 0) + guestCart.quantityAt(i),
+                    product.getStockQuantity());
+            if (merged > 0) {
+                changes.put(product.getId(), merged);
+            }
+        }
+        if (!changes.isEmpty()) {
+            cartStore.applyChanges(userId, changes);
+        }
     }
     
-    public void clearCart() {
-        User user = getCurrentUser();
-        cartItemRepository.deleteByUser(user);
+    private List<CartLine> toLines(CompactCart cart) {
+        List<CartLine> lines = new ArrayList<>(cart.size());
+        for (int i = 0; i < cart.size(); i++) {
+            lines.add(new CartLine(cart.productIdAt(i), cart.productIdAt(i), cart.quantityAt(i)));
+        }
+        return lines;
     }
     
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private CartLine findLine(Map<Long, CartLine> linesById, Long cartItemId) {
+        CartLine line = linesById.get(requireValue(cartItemId, "cartItemId"));
+        if (line == null) {
+            throw new RuntimeException("Cart item not found with id: " + cartItemId);
+        }
+        return line;
+    }
+    
+    private <T> T requireValue(T value, String field) {
+        if (value == null) {
+            throw new RuntimeException("Missing " + field + " in cart operation");
+        }
+        return value;
+    }
+    
+    private Map<Long, Product> findProducts(Set<Long> productIds) {
+        return productRepository.findWithImagesByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+    
+    private List<CartItemDto> convertToDtos(List<CartLine> lines, Map<Long, Product> products) {
+        return lines.stream()
+                .filter(line -> products.containsKey(line.getProductId()))
+                .map(line -> convertToDto(line, products.get(line.getProductId())))
+                .collect(Collectors.toList());
     }
     
-    private CartItemDto convertToDto(CartItem cartItem) {
+    private CartItemDto convertToDto(CartLine line, Product product) {
         CartItemDto dto = new CartItemDto();
-        dto.setId(cartItem.getId());
-        dto.setProductId(cartItem.getProduct().getId());
-        dto.setQuantity(cartItem.getQuantity());
+        dto.setId(line.getId());
+        dto.setProductId(product.getId());
+        dto.setQuantity(line.getQuantity());
         
         // Convert product to DTO
         ProductDto productDto = new ProductDto();
-        productDto.setId(cartItem.getProduct().getId());
-        productDto.setName(cartItem.getProduct().getName());
-        productDto.setDescription(cartItem.getProduct().getDescription());
-        productDto.setPrice(cartItem.getProduct().getPrice());
-        productDto.setStockQuantity(cartItem.getProduct().getStockQuantity());
-        productDto.setBrand(cartItem.getProduct().getBrand());
-        productDto.setCategory(cartItem.getProduct().getCategory());
-        productDto.setGender(cartItem.getProduct().getGender());
-        productDto.setImageUrls(cartItem.getProduct().getImageUrls());
-        productDto.setColor(cartItem.getProduct().getColor());
-        productDto.setSize(cartItem.getProduct().getSize());
-        productDto.setMaterial(cartItem.getProduct().getMaterial());
-        productDto.setIsActive(cartItem.getProduct().getIsActive());
+        productDto.setId(product.getId());
+        productDto.setName(product.getName());
+        productDto.setDescription(product.getDescription());
+        productDto.setPrice(product.getPrice());
+        productDto.setStockQuantity(product.getStockQuantity());
+        productDto.setBrand(product.getBrand());
+        productDto.setCategory(product.getCategory());
+        productDto.setGender(product.getGender());
+        productDto.setImageUrls(product.getImageUrls() == null ? null : new ArrayList<>(product.getImageUrls()));
+        productDto.setColor(product.getColor());
+        productDto.setSize(product.getSize());
+        productDto.setMaterial(product.getMaterial());
+        productDto.setIsActive(product.getIsActive());
         
         dto.setProduct(productDto);
         return dto;
@@ -0,0 +1,37 @@
+package com.shoestore.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage for user carts. The implementation is selected with {@code cart.store.mode}:
+ * {@code database} reads and writes {@code cart_items} directly, {@code memory} keeps
+ * active carts in memory and writes them behind.
+ */
+public interface CartStore {
+    
+    List<CartLine> getLines(Long userId);
+    
+    CartLine addQuantity(Long userId, Long productId, int quantity);
+    
+    CartLine getLine(Long userId, Long lineId);
+    
+    CartLine setQuantity(Long userId, Long lineId, int quantity);
+    
+    void removeLine(Long userId, Long lineId);
+    
+    void clear(Long userId);
+    
+    /**
+     * Applies final quantities keyed by product id in one step; a quantity of zero removes the line.
+     * Returns the resulting cart.
+     */
+    List<CartLine> applyChanges(Long userId, Map<Long, Integer> quantities);
+    
+    /**
+     * Drops any cached state for carts that were removed behind the store's back.
+     */
+    default void forget(Collection<Long> userIds) {
+    }
+}
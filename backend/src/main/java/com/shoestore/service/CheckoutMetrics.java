@@ -0,0 +1,70 @@
+package com.shoestore.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checkout outcome counters. Every counter is registered up front, so recording an outcome is a
+ * map lookup and an increment with no tag allocation.
+ */
+@Component
+public class CheckoutMetrics {
+    
+    public static final String ORDER_CREATED = "created";
+    public static final String ORDER_EMPTY_CART = "empty_cart";
+    public static final String ORDER_INSUFFICIENT_STOCK = "insufficient_stock";
+    public static final String ORDER_PRODUCT_UNAVAILABLE = "product_unavailable";
+    
+    public static final String PAYMENT_ORDER_CREATED = "created";
+    public static final String PAYMENT_ORDER_REUSED = "reused";
+    public static final String PAYMENT_ORDER_UNAVAILABLE = "gateway_unavailable";
+    
+    public static final String VERIFICATION_VERIFIED = "verified";
+    public static final String VERIFICATION_REJECTED = "rejected";
+    
+    private final Map<String, Counter> orders;
+    private final Map<String, Counter> paymentOrders;
+    private final Map<String, Counter> verifications;
+    private final Map<String, Counter> payments;
+    private final Counter otherPayments;
+    
+    public CheckoutMetrics(MeterRegistry registry) {
+        orders = counters(registry, "checkout.orders", "outcome",
+                ORDER_CREATED, ORDER_EMPTY_CART, ORDER_INSUFFICIENT_STOCK, ORDER_PRODUCT_UNAVAILABLE);
+        paymentOrders = counters(registry, "checkout.payment.orders", "outcome",
+                PAYMENT_ORDER_CREATED, PAYMENT_ORDER_REUSED, PAYMENT_ORDER_UNAVAILABLE);
+        verifications = counters(registry, "checkout.payment.verifications", "outcome",
+                VERIFICATION_VERIFIED, VERIFICATION_REJECTED);
+        payments = counters(registry, "checkout.payments", "status",
+                "authorized", "captured", "failed", "refunded");
+        otherPayments = Counter.builder("checkout.payments").tag("status", "other").register(registry);
+    }
+    
+    public void orderOutcome(String outcome) {
+        orders.get(outcome).increment();
+    }
+    
+    public void paymentOrderOutcome(String outcome) {
+        paymentOrders.get(outcome).increment();
+    }
+    
+    public void verificationOutcome(boolean verified) {
+        verifications.get(verified ? VERIFICATION_VERIFIED : VERIFICATION_REJECTED).increment();
+    }
+    
+    // Gateway statuses are open-ended, so anything unexpected is folded into "other"
+    public void paymentStatus(String status) {
+        payments.getOrDefault(status, otherPayments).increment();
+    }
+    
+    private static Map<String, Counter> counters(MeterRegistry registry, String name, String tag, String... values) {
+        return Stream.of(values).collect(Collectors.toUnmodifiableMap(Function.identity(),
+                value -> Counter.builder(name).tag(tag, value).register(registry)));
+    }
+}
@@ -0,0 +1,149 @@
+package com.shoestore.service;
+
+import java.util.Arrays;
+
+/**
+ * Compact cart representation: parallel arrays of product ids and quantities, one slot per product.
+ * All mutators are synchronized on the instance; callers that need several steps to be atomic
+ * can synchronize on the cart themselves.
+ */
+public class CompactCart {
+    
+    private long[] productIds;
+    private int[] quantities;
+    private int size;
+    private volatile long lastAccess = System.currentTimeMillis();
+    private boolean evicted;
+    
+    public CompactCart() {
+        this(4);
+    }
+    
+    public CompactCart(int capacity) {
+        productIds = new long[Math.max(capacity, 1)];
+        quantities = new int[Math.max(capacity, 1)];
+    }
+    
+    public synchronized int add(long productId, int quantity) {
+        int index = indexOf(productId);
+        if (index >= 0) {
+            quantities[index] += quantity;
+            return quantities[index];
+        }
+        append(productId, quantity);
+        return quantity;
+    }
+    
+    public synchronized boolean set(long productId, int quantity) {
+        int index = indexOf(productId);
+        if (index < 0) {
+            return false;
+        }
+        quantities[index] = quantity;
+        return true;
+    }
+    
+    public synchronized int get(long productId) {
+        int index = indexOf(productId);
+        return index >= 0 ? quantities[index] : 0;
+    }
+    
+    public synchronized boolean remove(long productId) {
+        int index = indexOf(productId);
+        if (index < 0) {
+            return false;
+        }
+        int tail = size - index - 1;
+        System.arraycopy(productIds, index + 1, productIds, index, tail);
+        System.arraycopy(quantities, index + 1, quantities, index, tail);
+        size--;
+        return true;
+    }
+    
+    public synchronized void clear() {
+        size = 0;
+    }
+    
+    public synchronized CompactCart snapshot() {
+        CompactCart copy = new CompactCart(size);
+        System.arraycopy(productIds, 0, copy.productIds, 0, size);
+        System.arraycopy(quantities, 0, copy.quantities, 0, size);
+        copy.size = size;
+        copy.lastAccess = lastAccess;
+        return copy;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    public synchronized long productIdAt(int index) {
+        return productIds[index];
+    }
+    
+    public synchronized int quantityAt(int index) {
+        return quantities[index];
+    }
+    
+    /**
+     * Encodes the cart as {@code productId:quantity} pairs separated by commas.
+     */
+    public synchronized String encode() {
+        StringBuilder builder = new StringBuilder(size * 8);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(productIds[i]).append(':').append(quantities[i]);
+        }
+        return builder.toString();
+    }
+    
+    public static CompactCart decode(String encoded) {
+        CompactCart cart = new CompactCart();
+        if (encoded == null || encoded.isEmpty()) {
+            return cart;
+        }
+        for (String entry : encoded.split(",")) {
+            int separator = entry.indexOf(':');
+            cart.add(Long.parseLong(entry, 0, separator, 10),
+                    Integer.parseInt(entry, separator + 1, entry.length(), 10));
+        }
+        return cart;
+    }
+    
+    public long getLastAccess() {
+        return lastAccess;
+    }
+    
+    public void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+    
+    public synchronized boolean isEvicted() {
+        return evicted;
+    }
+    
+    public synchronized void markEvicted() {
+        evicted = true;
+    }
+    
+    private int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void append(long productId, int quantity) {
+        if (size == productIds.length) {
+            productIds = Arrays.copyOf(productIds, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+        }
+        productIds[size] = productId;
+        quantities[size] = quantity;
+        size++;
+    }
+}
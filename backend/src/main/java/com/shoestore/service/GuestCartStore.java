@@ -0,0 +1,262 @@
+package com.shoestore.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Server-side carts for anonymous shoppers, keyed by an opaque random token. Carts live in memory
+ * as {@link CompactCart}s and are written to {@code guest_carts} only after they change, in
+ * batches. Carts idle longer than {@code cart.guest.ttl-ms} leave memory and are reloaded from the
+ * table on the next request. At most {@code cart.guest.max-carts} carts are held in memory: at the
+ * limit, creating a cart first drops a batch of clean carts, empty ones first and then the least
+ * recently used, and the flush job does the same when reloads push the count over it.
+ */
+@Component
+public class GuestCartStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GuestCartStore.class);
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${cart.guest.ttl-ms:3600000}")
+    private long ttlMs;
+    
+    @Value("${cart.guest.retention-days:7}")
+    private long retentionDays;
+    
+    @Value("${cart.guest.max-lines:100}")
+    private int maxLines;
+    
+    @Value("${cart.guest.max-carts:100000}")
+    private int maxCarts;
+    
+    private final Map<String, CompactCart> carts = new ConcurrentHashMap<>();
+    
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    
+    // Sort keys are read once, as carts keep changing while candidates are sorted
+    private static final class Candidate {
+        private final String token;
+        private final CompactCart cart;
+        private final boolean empty;
+        private final long lastAccess;
+        
+        Candidate(String token, CompactCart cart) {
+            this.token = token;
+            this.cart = cart;
+            this.empty = cart.size() == 0;
+            this.lastAccess = cart.getLastAccess();
+        }
+    }
+    
+    public String create() {
+        if (carts.size() >= maxCarts) {
+            makeRoom();
+        }
+        // Only when every cart held has edits waiting for the flush
+        if (carts.size() >= maxCarts) {
+            throw new RuntimeException("Too many guest carts, please try again later");
+        }
+        byte[] bytes = new byte[24];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        carts.put(token, new CompactCart());
+        return token;
+    }
+    
+    public CompactCart snapshot(String token) {
+        return withCart(token, CompactCart::snapshot);
+    }
+    
+    public int add(String token, Long productId, int quantity) {
+        return mutate(token, cart -> {
+            if (cart.get(productId) == 0 && cart.size() >= maxLines) {
+                throw new RuntimeException("Guest cart is full");
+            }
+            return cart.add(productId, quantity);
+        });
+    }
+    
+    public boolean set(String token, Long productId, int quantity) {
+        return mutate(token, cart -> cart.set(productId, quantity));
+    }
+    
+    public boolean remove(String token, Long productId) {
+        return mutate(token, cart -> cart.remove(productId));
+    }
+    
+    /**
+     * Returns the cart and deletes it, used when a guest cart is merged into a user cart. Inside a
+     * transaction the cart stays in memory until the transaction commits, so a failed merge keeps
+     * the guest's unflushed edits.
+     */
+    public CompactCart take(String token) {
+        CompactCart snapshot = snapshot(token);
+        jdbcTemplate.update("DELETE FROM guest_carts WHERE token = ?", token);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(token);
+                }
+            });
+        } else {
+            forget(token);
+        }
+        return snapshot;
+    }
+    
+    @Scheduled(fixedDelayString = "${cart.guest.flush-interval-ms:5000}")
+    public void flushAndEvict() {
+        flush();
+        long idleBefore = System.currentTimeMillis() - ttlMs;
+        carts.forEach((token, cart) -> {
+            if (cart.getLastAccess() < idleBefore) {
+                evict(token, cart);
+            }
+        });
+        
+        int excess = carts.size() - maxCarts;
+        if (excess > 0) {
+            evictClean(excess);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    // One batch per scan, so creations under a full store do not each sort every cart
+    private synchronized void makeRoom() {
+        if (carts.size() >= maxCarts) {
+            evictClean(Math.max(1, maxCarts / 100));
+        }
+    }
+    
+    // Empty carts first: they were never written, so dropping them loses nothing anyone has added
+    private void evictClean(int count) {
+        List<Candidate> candidates = new ArrayList<>(carts.size());
+        carts.forEach((token, cart) -> {
+            if (!dirty.contains(token)) {
+                candidates.add(new Candidate(token, cart));
+            }
+        });
+        candidates.sort(Comparator.comparing((Candidate candidate) -> !candidate.empty)
+                .thenComparingLong(candidate -> candidate.lastAccess));
+        candidates.stream()
+                .limit(count)
+                .forEach(candidate -> evict(candidate.token, candidate.cart));
+    }
+    
+    private void forget(String token) {
+        CompactCart cart = carts.get(token);
+        if (cart == null) {
+            return;
+        }
+        synchronized (cart) {
+            cart.markEvicted();
+            dirty.remove(token);
+            carts.remove(token, cart);
+        }
+    }
+    
+    private void evict(String token, CompactCart cart) {
+        synchronized (cart) {
+            // Dirty carts stay until the flush has written them
+            if (!dirty.contains(token)) {
+                cart.markEvicted();
+                carts.remove(token, cart);
+            }
+        }
+    }
+    
+    private <T> T withCart(String token, Function<CompactCart, T> action) {
+        while (true) {
+            CompactCart cart = loadCart(token);
+            synchronized (cart) {
+                if (!cart.isEvicted()) {
+                    cart.touch();
+                    return action.apply(cart);
+                }
+            }
+        }
+    }
+    
+    private <T> T mutate(String token, Function<CompactCart, T> action) {
+        return withCart(token, cart -> {
+            T result = action.apply(cart);
+            dirty.add(token);
+            return result;
+        });
+    }
+    
+    private CompactCart loadCart(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new RuntimeException("Missing guest cart token");
+        }
+        CompactCart cart = carts.get(token);
+        if (cart != null) {
+            return cart;
+        }
+        List<String> rows = jdbcTemplate.queryForList(
+                "SELECT items FROM guest_carts WHERE token = ? AND updated_at > ?", String.class,
+                token, Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays)));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Guest cart not found");
+        }
+        CompactCart loaded = CompactCart.decode(rows.get(0));
+        CompactCart existing = carts.putIfAbsent(token, loaded);
+        return existing != null ? existing : loaded;
+    }
+    
+    private void flush() {
+        List<Object[]> rows = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Iterator<String> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            String token = iterator.next();
+            iterator.remove();
+            CompactCart cart = carts.get(token);
+            if (cart != null) {
+                tokens.add(token);
+                rows.add(new Object[] { token, cart.encode(), now });
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate("INSERT INTO guest_carts (token, items, updated_at) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE items = VALUES(items), updated_at = VALUES(updated_at)", rows);
+        } catch (RuntimeException e) {
+            dirty.addAll(tokens);
+            logger.error("Failed to persist {} guest carts: {}", rows.size(), e.getMessage());
+        }
+    }
+}
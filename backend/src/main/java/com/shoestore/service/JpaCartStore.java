@@ -0,0 +1,118 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.CartItem;
+import com.shoestore.repository.CartItemRepository;
+import com.shoestore.repository.ProductRepository;
+import com.shoestore.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@Transactional
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "database", matchIfMissing = true)
+public class JpaCartStore implements CartStore {
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Override
+    public List<CartLine> getLines(Long userId) {
+        return cartItemRepository.findByUserIdOrderByIdAsc(userId).stream()
+                .map(this::toLine)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public CartLine addQuantity(Long userId, Long productId, int quantity) {
+        CartItem cartItem = cartItemRepository.findByUserIdAndProductId(userId, productId)
+                .map(existing -> {
+                    existing.setQuantity(existing.getQuantity() + quantity);
+                    return existing;
+                })
+                .orElseGet(() -> new CartItem(userRepository.getReferenceById(userId),
+                        productRepository.getReferenceById(productId), quantity));
+        return toLine(cartItemRepository.save(cartItem));
+    }
+    
+    @Override
+    public CartLine getLine(Long userId, Long lineId) {
+        return toLine(findOwned(userId, lineId));
+    }
+    
+    @Override
+    public CartLine setQuantity(Long userId, Long lineId, int quantity) {
+        CartItem cartItem = findOwned(userId, lineId);
+        cartItem.setQuantity(quantity);
+        return toLine(cartItemRepository.save(cartItem));
+    }
+    
+    @Override
+    public void removeLine(Long userId, Long lineId) {
+        cartItemRepository.delete(findOwned(userId, lineId));
+    }
+    
+    @Override
+    public void clear(Long userId) {
+        cartItemRepository.deleteByUserId(userId);
+    }
+    
+    @Override
+    public List<CartLine> applyChanges(Long userId, Map<Long, Integer> quantities) {
+        List<CartItem> cartItems = new ArrayList<>(cartItemRepository.findByUserIdOrderByIdAsc(userId));
+        Map<Long, CartItem> byProduct = new HashMap<>();
+        cartItems.forEach(cartItem -> byProduct.put(cartItem.getProduct().getId(), cartItem));
+        
+        List<CartItem> removed = new ArrayList<>();
+        List<CartItem> added = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            CartItem existing = byProduct.get(productId);
+            if (quantity <= 0) {
+                if (existing != null) {
+                    removed.add(existing);
+                }
+            } else if (existing != null) {
+                // Flushed together with the other dirty items at commit
+                existing.setQuantity(quantity);
+            } else {
+                added.add(new CartItem(userRepository.getReferenceById(userId),
+                        productRepository.getReferenceById(productId), quantity));
+            }
+        });
+        
+        if (!removed.isEmpty()) {
+            cartItemRepository.deleteAllInBatch(removed);
+            cartItems.removeAll(removed);
+        }
+        cartItems.addAll(cartItemRepository.saveAll(added));
+        return cartItems.stream()
+                .map(this::toLine)
+                .collect(Collectors.toList());
+    }
+    
+    private CartItem findOwned(Long userId, Long lineId) {
+        CartItem cartItem = cartItemRepository.findById(lineId)
+                .orElseThrow(() -> new RuntimeException("Cart item not found with id: " + lineId));
+        if (!cartItem.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to cart item");
+        }
+        return cartItem;
+    }
+    
+    private CartLine toLine(CartItem cartItem) {
+        return new CartLine(cartItem.getId(), cartItem.getProduct().getId(), cartItem.getQuantity());
+    }
+}
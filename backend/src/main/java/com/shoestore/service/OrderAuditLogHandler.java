@@ -0,0 +1,27 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderAuditLogHandler implements OutboxEventHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderAuditLogHandler.class);
+    
+    @Override
+    public String getName() {
+        return "order-audit-log";
+    }
+    
+    @Override
+    public boolean supports(String eventType) {
+        return eventType.startsWith("ORDER_");
+    }
+    
+    @Override
+    public void handle(OutboxEvent event) {
+        logger.info("{} order={} payload={}", event.getEventType(), event.getAggregateId(), event.getPayload());
+    }
+}
@@ -1,27 +1,38 @@
 package com.shoestore.service;
 
-import com.shoestore.dto.CartItemDto;
+import com.shoestore.dto.CartSummaryDto;
+import com.shoestore.dto.CartSummaryLineDto;
 import com.shoestore.dto.OrderDto;
 import com.shoestore.dto.OrderItemDto;
 import com.shoestore.dto.ProductDto;
 import com.shoestore.entity.*;
 import com.shoestore.repository.OrderRepository;
 import com.shoestore.repository.ProductRepository;
-import com.shoestore.repository.UserRepository;
+import com.shoestore.security.CurrentUserResolver;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderService {
     
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    
     @Autowired
     private OrderRepository orderRepository;
     
@@ -29,83 +40,130 @@ public class OrderService {
     private ProductRepository productRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUser;
     
     @Autowired
     private CartService cartService;
     
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private PricingEngine pricingEngine;
+    
+    @Autowired
+    private PriceTable priceTable;
+    
+    @Autowired
+    private CheckoutMetrics checkoutMetrics;
+    
+    @Transactional(readOnly = true)
+    @Timed
     public List<OrderDto> getUserOrders() {
-        User user = getCurrentUser();
-        return orderRepository.findByUserOrderByOrderDateDesc(user).stream()
+        return orderRepository.findByUserIdOrderByOrderDateDesc(currentUser.getUserId()).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<OrderDto> getAllOrders() {
         return orderRepository.findAllOrderByOrderDateDesc().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Timed
     public OrderDto createOrder(OrderDto orderDto) {
-        User user = getCurrentUser();
-        List<CartItemDto> cartItems = cartService.getCartItems();
+        Long userId = currentUser.getUserId();
+        List<CartLine> lines = cartService.getCartLines(userId);
         
-        if (cartItems.isEmpty()) {
+        if (lines.isEmpty()) {
+            checkoutMetrics.orderOutcome(CheckoutMetrics.ORDER_EMPTY_CART);
             throw new RuntimeException("Cart is empty");
         }
         
-        // Calculate total amount
-        BigDecimal totalAmount = cartItems.stream()
-                .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Load every product in one query; stock is decremented on the managed entities
+        Set<Long> productIds = lines.stream()
+                .map(CartLine::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        for (CartLine line : lines) {
+            Product product = products.get(line.getProductId());
+            if (product == null) {
+                checkoutMetrics.orderOutcome(CheckoutMetrics.ORDER_PRODUCT_UNAVAILABLE);
+                throw new RuntimeException("Product not found");
+            }
+            if (!Boolean.TRUE.equals(product.getIsActive())) {
+                checkoutMetrics.orderOutcome(CheckoutMetrics.ORDER_PRODUCT_UNAVAILABLE);
+                throw new RuntimeException("Product is no longer available: " + product.getName());
+            }
+        }
+        
+        // Priced from the entities above, not the price table, which another node may have left stale
+        CartSummaryDto summary = pricingEngine.price(lines, products);
         
         // Create order
-        Order order = new Order(user, totalAmount, orderDto.getShippingAddress(),
+        Order order = new Order(currentUser.getUserReference(), summary.getTotal(), orderDto.getShippingAddress(),
                 orderDto.getCity(), orderDto.getState(), orderDto.getZipCode(), orderDto.getCountry());
         order.setPhoneNumber(orderDto.getPhoneNumber());
+        order.setOrderItems(new ArrayList<>());
         
         // Create order items and update stock
-        for (CartItemDto cartItem : cartItems) {
-            Product product = productRepository.findById(cartItem.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
-            
-            if (product.getStockQuantity() < cartItem.getQuantity()) {
+        for (CartSummaryLineDto line : summary.getLines()) {
+            Product product = products.get(line.getProductId());
+            if (product.getStockQuantity() < line.getQuantity()) {
+                checkoutMetrics.orderOutcome(CheckoutMetrics.ORDER_INSUFFICIENT_STOCK);
                 throw new RuntimeException("Insufficient stock for product: " + product.getName());
             }
             
-            OrderItem orderItem = new OrderItem(order, product, cartItem.getQuantity(), product.getPrice());
+            OrderItem orderItem = new OrderItem(order, product, line.getQuantity(), line.getUnitPrice());
             order.getOrderItems().add(orderItem);
             
             // Update stock
-            product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
-            productRepository.save(product);
+            product.setStockQuantity(product.getStockQuantity() - line.getQuantity());
+            priceTable.update(product);
         }
         
         Order savedOrder = orderRepository.save(order);
         
         // Clear cart
-        cartService.clearCart();
+        cartService.clearCart(userId);
+        
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", userId);
+        payload.put("totalAmount", savedOrder.getTotalAmount());
+        payload.put("itemCount", savedOrder.getOrderItems().size());
+        publishOrderEvent(savedOrder, OutboxEvent.ORDER_CREATED, payload);
+        checkoutMetrics.orderOutcome(CheckoutMetrics.ORDER_CREATED);
         
         return convertToDto(savedOrder);
     }
     
     public OrderDto updateOrderStatus(Long orderId, OrderStatus status) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
+        
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("previousStatus", previousStatus);
+        payload.put("status", status);
+        publishOrderEvent(updatedOrder, OutboxEvent.ORDER_STATUS_CHANGED, payload);
+        
         return convertToDto(updatedOrder);
     }
     
+    @Transactional(readOnly = true)
+    @Timed
     public OrderDto getOrderById(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
-        User currentUser = getCurrentUser();
-        if (!order.getUser().getId().equals(currentUser.getId()) && 
-            !currentUser.getRole().equals(Role.ADMIN)) {
+        if (!order.getUser().getId().equals(currentUser.getUserId()) && !currentUser.isAdmin()) {
             throw new RuntimeException("Unauthorized access to order");
         }
         
@@ -116,21 +174,83 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
+        applyPaymentStatus(order, paymentId, paymentStatus);
+    }
+    
+    // Listed under replica.primary-only, so a gateway order attached moments ago by another
+    // request or instance is never missed
+    @Transactional(readOnly = true)
+    public OrderDto getOrderForPayment(Long orderId) {
+        return getOrderById(orderId);
+    }
+    
+    /**
+     * Stores the gateway order unless the order already holds one for the same amount. Returns
+     * false when another request got there first; the caller should use the stored one.
+     */
+    public boolean attachGatewayOrder(Long orderId, String gatewayOrderId, BigDecimal amount) {
+        return orderRepository.attachGatewayOrderIfStale(orderId, gatewayOrderId, amount, LocalDateTime.now()) > 0;
+    }
+    
+    /**
+     * Applies gateway-reported payment states in one transaction, loading all affected orders with
+     * a single query. Updates are applied in list order; returns how many changed an order.
+     */
+    @Timed
+    public int updatePaymentStatuses(List<PaymentUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        Set<String> gatewayOrderIds = updates.stream()
+                .map(PaymentUpdate::getGatewayOrderId)
+                .collect(Collectors.toSet());
+        Map<String, Order> orders = orderRepository.findByGatewayOrderIdIn(gatewayOrderIds).stream()
+                .collect(Collectors.toMap(Order::getGatewayOrderId, Function.identity(), (first, second) -> first));
+        
+        int applied = 0;
+        for (PaymentUpdate update : updates) {
+            Order order = orders.get(update.getGatewayOrderId());
+            if (order == null) {
+                logger.warn("No order for gateway order {}", update.getGatewayOrderId());
+                continue;
+            }
+            if (applyPaymentStatus(order, update.getPaymentId(), update.getPaymentStatus())) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+    
+    // Returns false when the update is a repeat, or would replace a captured payment
+    private boolean applyPaymentStatus(Order order, String paymentId, String paymentStatus) {
+        if ("captured".equals(order.getPaymentStatus()) && !"captured".equals(paymentStatus)) {
+            return false;
+        }
+        if (Objects.equals(order.getPaymentId(), paymentId) && Objects.equals(order.getPaymentStatus(), paymentStatus)) {
+            return false;
+        }
+        
         order.setPaymentId(paymentId);
         order.setPaymentStatus(paymentStatus);
         
-        if ("captured".equals(paymentStatus)) {
+        if ("captured".equals(paymentStatus) && order.getStatus() == OrderStatus.PENDING) {
             order.setStatus(OrderStatus.CONFIRMED);
         }
         
         orderRepository.save(order);
+        
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", paymentId);
+        payload.put("paymentStatus", paymentStatus);
+        payload.put("status", order.getStatus());
+        publishOrderEvent(order, OutboxEvent.ORDER_PAYMENT_UPDATED, payload);
+        checkoutMetrics.paymentStatus(paymentStatus);
+        return true;
     }
     
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private void publishOrderEvent(Order order, String eventType, Map<String, Object> payload) {
+        payload.put("orderId", order.getId());
+        outboxService.publish("Order", order.getId(), eventType, payload);
     }
     
     private OrderDto convertToDto(Order order) {
@@ -144,6 +264,8 @@ public class OrderService {
         dto.setZipCode(order.getZipCode());
         dto.setCountry(order.getCountry());
         dto.setPhoneNumber(order.getPhoneNumber());
+        dto.setGatewayOrderId(order.getGatewayOrderId());
+        dto.setGatewayOrderAmount(order.getGatewayOrderAmount());
         dto.setPaymentId(order.getPaymentId());
         dto.setPaymentStatus(order.getPaymentStatus());
         dto.setOrderDate(order.getOrderDate());
@@ -174,7 +296,7 @@ public class OrderService {
         productDto.setBrand(orderItem.getProduct().getBrand());
         productDto.setCategory(orderItem.getProduct().getCategory());
         productDto.setGender(orderItem.getProduct().getGender());
-        productDto.setImageUrls(orderItem.getProduct().getImageUrls());
+        productDto.setImageUrls(orderItem.getProduct().getImageUrls() == null ? null : new ArrayList<>(orderItem.getProduct().getImageUrls()));
         productDto.setColor(orderItem.getProduct().getColor());
         productDto.setSize(orderItem.getProduct().getSize());
         productDto.setMaterial(orderItem.getProduct().getMaterial());
@@ -0,0 +1,132 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.OutboxEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls the outbox table and fans events out to the registered {@link OutboxEventHandler}s.
+ * Each handler records its own deliveries, and at most one batch per handler is in flight, so
+ * visible events reach each handler in id order. A failed event and everything after it in the
+ * batch is retried on the next poll. An event whose transaction commits after a later id was
+ * delivered is picked up by the next poll rather than skipped.
+ */
+@Component
+public class OutboxDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired(required = false)
+    private List<OutboxEventHandler> handlers = new ArrayList<>();
+    
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${outbox.dispatcher.threads:4}")
+    private int threads;
+    
+    @Value("${outbox.dispatcher.queue-capacity:32}")
+    private int queueCapacity;
+    
+    @Value("${outbox.retention-hours:24}")
+    private long retentionHours;
+    
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    
+    private ThreadPoolExecutor executor;
+    
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "outbox-dispatcher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        for (OutboxEventHandler handler : handlers) {
+            String name = handler.getName();
+            if (!inFlight.add(name)) {
+                continue;
+            }
+            try {
+                List<OutboxEvent> batch = outboxService.fetchUndelivered(name, batchSize);
+                if (batch.isEmpty()) {
+                    inFlight.remove(name);
+                    continue;
+                }
+                executor.execute(() -> deliver(handler, batch));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(name);
+                logger.warn("Outbox dispatcher saturated, deferring batch for {}", name);
+            } catch (RuntimeException e) {
+                inFlight.remove(name);
+                logger.error("Failed to load outbox batch for {}: {}", name, e.getMessage());
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval-ms:3600000}")
+    public void purgeDelivered() {
+        List<String> consumers = handlers.stream().map(OutboxEventHandler::getName).toList();
+        int removed = outboxService.purgeDelivered(consumers, LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            logger.info("Purged {} delivered outbox events", removed);
+        }
+    }
+    
+    private void deliver(OutboxEventHandler handler, List<OutboxEvent> batch) {
+        String name = handler.getName();
+        List<Long> delivered = new ArrayList<>(batch.size());
+        try {
+            for (OutboxEvent event : batch) {
+                try {
+                    if (handler.supports(event.getEventType())) {
+                        handler.handle(event);
+                    }
+                } catch (Exception e) {
+                    logger.error("Outbox handler {} failed on event {}: {}", name, event.getId(), e.getMessage());
+                    break;
+                }
+                delivered.add(event.getId());
+            }
+            outboxService.markDelivered(name, delivered);
+        } catch (RuntimeException e) {
+            logger.error("Failed to record outbox deliveries for {}: {}", name, e.getMessage());
+        } finally {
+            inFlight.remove(name);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.OutboxEvent;
+
+/**
+ * Consumer of outbox events. Delivery is at-least-once, so handlers must be idempotent.
+ * Each handler keeps its own offset, identified by {@link #getName()}.
+ */
+public interface OutboxEventHandler {
+    
+    String getName();
+    
+    boolean supports(String eventType);
+    
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,108 @@
+package com.shoestore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoestore.entity.OutboxDelivery;
+import com.shoestore.entity.OutboxEvent;
+import com.shoestore.entity.OutboxOffset;
+import com.shoestore.repository.OutboxDeliveryRepository;
+import com.shoestore.repository.OutboxEventRepository;
+import com.shoestore.repository.OutboxOffsetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbox storage. Each consumer's offset is a low-water mark: every event at or below it has been
+ * handled. Events above it are delivered individually and recorded in {@code outbox_deliveries},
+ * because ids are assigned at insert and a transaction holding a lower id may commit after one
+ * holding a higher id. The offset only moves past events older than {@code outbox.commit-grace-ms},
+ * by which time any transaction that held a lower id has committed or rolled back.
+ */
+@Service
+@Transactional
+public class OutboxService {
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+    
+    @Autowired
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${outbox.commit-grace-ms:60000}")
+    private long commitGraceMs;
+    
+    // Must join the caller's transaction so the event commits or rolls back with the business change
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox event: " + eventType, e);
+        }
+        outboxEventRepository.save(new OutboxEvent(aggregateType, aggregateId, eventType, json));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<OutboxEvent> fetchUndelivered(String consumer, int limit) {
+        return outboxEventRepository.findUndelivered(consumer, getOffset(consumer), PageRequest.of(0, limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public Long getOffset(String consumer) {
+        return outboxOffsetRepository.findById(consumer)
+                .map(OutboxOffset::getLastEventId)
+                .orElse(0L);
+    }
+    
+    /**
+     * Records the events as handled by the consumer, then advances its offset as far as every
+     * earlier event is handled and settled.
+     */
+    public void markDelivered(String consumer, Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        outboxDeliveryRepository.saveAll(eventIds.stream().map(id -> new OutboxDelivery(consumer, id)).toList());
+        outboxDeliveryRepository.flush();
+        
+        OutboxOffset offset = outboxOffsetRepository.findById(consumer)
+                .orElseGet(() -> new OutboxOffset(consumer, 0L));
+        Long firstUndelivered = outboxEventRepository.findFirstUndeliveredId(consumer, offset.getLastEventId());
+        Long settled = outboxEventRepository.findLastSettledId(offset.getLastEventId(),
+                firstUndelivered != null ? firstUndelivered : Long.MAX_VALUE,
+                LocalDateTime.now().minus(commitGraceMs, ChronoUnit.MILLIS));
+        if (settled != null) {
+            offset.setLastEventId(settled);
+            outboxOffsetRepository.save(offset);
+            outboxDeliveryRepository.deleteUpTo(consumer, settled);
+        }
+    }
+    
+    public int purgeDelivered(Collection<String> consumers, LocalDateTime before) {
+        if (consumers.isEmpty()) {
+            return 0;
+        }
+        long delivered = Long.MAX_VALUE;
+        for (String consumer : consumers) {
+            delivered = Math.min(delivered, getOffset(consumer));
+        }
+        return outboxEventRepository.deleteDeliveredBefore(delivered, before);
+    }
+}
@@ -0,0 +1,34 @@
+package com.shoestore.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Remote payment provider. Implementations are called through {@link PaymentService}, which adds
+ * timeouts, a concurrency limit and a circuit breaker.
+ */
+public interface PaymentGateway {
+    
+    String getName();
+    
+    String createOrder(BigDecimal amount, String currency, String receipt) throws Exception;
+    
+    /**
+     * Checks the checkout signature locally; must not make a network call.
+     */
+    boolean verifyPayment(String orderId, String paymentId, String signature);
+    
+    /**
+     * Checks a webhook body against its signature header locally; must not make a network call.
+     */
+    boolean verifyWebhook(byte[] payload, String signature);
+    
+    String getPaymentStatus(String paymentId) throws Exception;
+    
+    /**
+     * The settled or most advanced payment of each gateway order; orders without a payment are
+     * left out.
+     */
+    List<PaymentUpdate> fetchOrderPayments(Collection<String> gatewayOrderIds) throws Exception;
+}
@@ -0,0 +1,19 @@
+package com.shoestore.service;
+
+/**
+ * The payment gateway is not answering: the circuit is open, too many calls are in flight, or a
+ * call ran past its timeout.
+ */
+public class PaymentGatewayUnavailableException extends RuntimeException {
+    
+    private final long retryAfterMs;
+    
+    public PaymentGatewayUnavailableException(String message, long retryAfterMs) {
+        super(message);
+        this.retryAfterMs = retryAfterMs;
+    }
+    
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
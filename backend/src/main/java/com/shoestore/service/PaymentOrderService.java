@@ -0,0 +1,96 @@
+package com.shoestore.service;
+
+import com.shoestore.dto.OrderDto;
+import com.shoestore.entity.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out the gateway order for a shop order. The gateway order stored on the order is reused
+ * while its amount still matches the order total, so checkout reloads cost no remote call.
+ * Concurrent requests for the same order on this instance share one creation call; across
+ * instances, the conditional update in {@link OrderService#attachGatewayOrder} keeps the first
+ * gateway order stored and later ones fall back to it.
+ */
+@Service
+public class PaymentOrderService {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private CheckoutMetrics checkoutMetrics;
+    
+    private final Map<Long, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    
+    public String getOrCreateGatewayOrder(Long orderId) {
+        OrderDto order = orderService.getOrderById(orderId);
+        if ("captured".equals(order.getPaymentStatus()) || order.getStatus() != OrderStatus.PENDING) {
+            throw new RuntimeException("Order is not awaiting payment");
+        }
+        if (isReusable(order)) {
+            checkoutMetrics.paymentOrderOutcome(CheckoutMetrics.PAYMENT_ORDER_REUSED);
+            return order.getGatewayOrderId();
+        }
+        
+        CompletableFuture<String> creation = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(orderId, creation);
+        if (existing != null) {
+            // Bounded by the payment timeout of the request doing the creation
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        
+        try {
+            // The first read may come from a lagging replica; check again on the primary
+            OrderDto current = orderService.getOrderForPayment(orderId);
+            if (isReusable(current)) {
+                creation.complete(current.getGatewayOrderId());
+                checkoutMetrics.paymentOrderOutcome(CheckoutMetrics.PAYMENT_ORDER_REUSED);
+                return current.getGatewayOrderId();
+            }
+            
+            BigDecimal amount = current.getTotalAmount();
+            String gatewayOrderId = paymentService.createOrder(amount, "INR", "order_" + orderId);
+            if (!orderService.attachGatewayOrder(orderId, gatewayOrderId, amount)) {
+                // Another instance stored a gateway order for this amount first; ours is left unused
+                current = orderService.getOrderForPayment(orderId);
+                if (!isReusable(current)) {
+                    throw new RuntimeException("Order changed while creating payment, please retry");
+                }
+                creation.complete(current.getGatewayOrderId());
+                checkoutMetrics.paymentOrderOutcome(CheckoutMetrics.PAYMENT_ORDER_REUSED);
+                return current.getGatewayOrderId();
+            }
+            creation.complete(gatewayOrderId);
+            checkoutMetrics.paymentOrderOutcome(CheckoutMetrics.PAYMENT_ORDER_CREATED);
+            return gatewayOrderId;
+        } catch (RuntimeException e) {
+            if (e instanceof PaymentGatewayUnavailableException) {
+                checkoutMetrics.paymentOrderOutcome(CheckoutMetrics.PAYMENT_ORDER_UNAVAILABLE);
+            }
+            creation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(orderId, creation);
+        }
+    }
+    
+    private static boolean isReusable(OrderDto order) {
+        return order.getGatewayOrderId() != null
+                && order.getGatewayOrderAmount() != null
+                && order.getGatewayOrderAmount().compareTo(order.getTotalAmount()) == 0;
+    }
+}
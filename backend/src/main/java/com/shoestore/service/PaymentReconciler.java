@@ -0,0 +1,76 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.Order;
+import com.shoestore.entity.OrderStatus;
+import com.shoestore.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Catches payments whose webhook never arrived. Each run takes the next batch of PENDING orders
+ * that have had a gateway order for a while, asks the gateway for all of them in one guarded
+ * call, and applies the answers in one transaction. A cursor walks the backlog so orders that
+ * were simply abandoned do not starve newer ones.
+ */
+@Component
+public class PaymentReconciler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciler.class);
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Value("${payment.reconciliation.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${payment.reconciliation.stale-after-minutes:15}")
+    private long staleAfterMinutes;
+    
+    @Value("${payment.reconciliation.max-age-hours:48}")
+    private long maxAgeHours;
+    
+    @Value("${payment.reconciliation.batch-size:10}")
+    private int batchSize;
+    
+    private long cursor;
+    
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval-ms:300000}",
+               initialDelayString = "${payment.reconciliation.interval-ms:300000}")
+    public void reconcile() {
+        if (!enabled || !paymentService.isAvailable()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> stale = orderRepository.findAwaitingPayment(OrderStatus.PENDING, cursor,
+                now.minusHours(maxAgeHours), now.minusMinutes(staleAfterMinutes), PageRequest.of(0, batchSize));
+        cursor = stale.size() < batchSize ? 0 : stale.get(stale.size() - 1).getId();
+        if (stale.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<PaymentUpdate> updates = paymentService.fetchOrderPayments(
+                    stale.stream().map(Order::getGatewayOrderId).toList());
+            int applied = orderService.updatePaymentStatuses(updates);
+            if (applied > 0) {
+                logger.info("Reconciled {} of {} pending orders with the payment gateway", applied, stale.size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Payment reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -1,56 +1,180 @@
 package com.shoestore.service;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import com.razorpay.Utils;
-import org.json.JSONObject;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Calls the configured {@link PaymentGateway} off the request thread, with a per-call timeout, a
+ * cap on calls in flight and a circuit breaker. When the gateway is unhealthy, callers get a
+ * {@link PaymentGatewayUnavailableException} immediately instead of waiting on it.
+ */
 @Service
 public class PaymentService {
     
-    @Value("${razorpay.key-id}")
-    private String razorpayKeyId;
+    private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
     
-    @Value("${razorpay.key-secret}")
-    private String razorpayKeySecret;
+    @Autowired
+    private PaymentGateway gateway;
     
-    public String createOrder(BigDecimal amount, String currency, String receipt) throws RazorpayException {
-        RazorpayClient razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-        
-        JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", amount.multiply(BigDecimal.valueOf(100)).intValue()); // Amount in paise
-        orderRequest.put("currency", currency);
-        orderRequest.put("receipt", receipt);
-        
-        Order order = razorpay.orders.create(orderRequest);
-        return order.get("id");
+    @Autowired
+    private CheckoutMetrics checkoutMetrics;
+    
+    @Value("${payment.timeout-ms:5000}")
+    private long timeoutMs;
+    
+    @Value("${payment.max-concurrent-calls:50}")
+    private int maxConcurrentCalls;
+    
+    @Value("${payment.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+    
+    @Value("${payment.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+    
+    private ExecutorService executor;
+    
+    private Semaphore permits;
+    
+    private CircuitBreaker circuitBreaker;
+    
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(maxConcurrentCalls);
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        executor = newExecutor(maxConcurrentCalls);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @Timed
+    public String createOrder(BigDecimal amount, String currency, String receipt) {
+        return call(() -> gateway.createOrder(amount, currency, receipt));
     }
     
     public boolean verifyPayment(String orderId, String paymentId, String signature) {
+        // Signature checks are local, so they skip the breaker and the executor
+        boolean verified = gateway.verifyPayment(orderId, paymentId, signature);
+        checkoutMetrics.verificationOutcome(verified);
+        return verified;
+    }
+    
+    public boolean verifyWebhook(byte[] payload, String signature) {
+        return gateway.verifyWebhook(payload, signature);
+    }
+    
+    @Timed
+    public String getPaymentStatus(String paymentId) {
+        return call(() -> gateway.getPaymentStatus(paymentId));
+    }
+    
+    @Timed
+    public List<PaymentUpdate> fetchOrderPayments(Collection<String> gatewayOrderIds) {
+        return call(() -> gateway.fetchOrderPayments(gatewayOrderIds));
+    }
+    
+    public boolean isAvailable() {
+        return circuitBreaker.getState() != CircuitBreaker.State.OPEN || circuitBreaker.getRetryAfterMs() == 0;
+    }
+    
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+    
+    private <T> T call(Callable<T> task) {
+        if (!permits.tryAcquire()) {
+            throw new PaymentGatewayUnavailableException("Payment gateway is busy", 1000);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            permits.release();
+            throw new PaymentGatewayUnavailableException("Payment gateway is unavailable", circuitBreaker.getRetryAfterMs());
+        }
+        
+        Future<T> future;
+        try {
+            // The permit is held until the gateway call itself returns, even after a timeout
+            future = executor.submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            circuitBreaker.onFailure();
+            throw new PaymentGatewayUnavailableException("Payment gateway is busy", 1000);
+        }
+        
         try {
-            RazorpayClient razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-            
-            JSONObject options = new JSONObject();
-            options.put("razorpay_order_id", orderId);
-            options.put("razorpay_payment_id", paymentId);
-            options.put("razorpay_signature", signature);
-            
-            boolean isValid = Utils.verifyPaymentSignature(options, razorpayKeySecret);
-            return isValid;
-        } catch (Exception e) {
-            return false;
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            logger.warn("{} gateway call timed out after {} ms", gateway.getName(), timeoutMs);
+            throw new PaymentGatewayUnavailableException("Payment gateway timed out", circuitBreaker.getRetryAfterMs());
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            Throwable cause = e.getCause();
+            logger.warn("{} gateway call failed: {}", gateway.getName(), cause.getMessage());
+            throw new RuntimeException("Payment gateway error: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayUnavailableException("Payment gateway call was interrupted", 0);
         }
     }
     
-    public String getPaymentStatus(String paymentId) throws RazorpayException {
-        RazorpayClient razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-        
-        com.razorpay.Payment payment = razorpay.payments.fetch(paymentId);
-        return payment.get("status");
+    /**
+     * Virtual threads when the runtime has them (Java 21+), otherwise a platform pool sized to the
+     * concurrency cap. The semaphore bounds in-flight calls either way.
+     */
+    private static ExecutorService newExecutor(int maxThreads) {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("Payment gateway calls run on virtual threads");
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "payment-gateway-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            logger.info("Payment gateway calls run on a pool of {} platform threads", maxThreads);
+            return pool;
+        }
     }
 }
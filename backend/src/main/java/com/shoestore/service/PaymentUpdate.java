@@ -0,0 +1,30 @@
+package com.shoestore.service;
+
+/**
+ * A payment state reported by the gateway for one of its orders, from a webhook or from
+ * reconciliation, ready to be applied by {@link OrderService#updatePaymentStatuses}.
+ */
+public class PaymentUpdate {
+    
+    private final String gatewayOrderId;
+    private final String paymentId;
+    private final String paymentStatus;
+    
+    public PaymentUpdate(String gatewayOrderId, String paymentId, String paymentStatus) {
+        this.gatewayOrderId = gatewayOrderId;
+        this.paymentId = paymentId;
+        this.paymentStatus = paymentStatus;
+    }
+    
+    public String getGatewayOrderId() {
+        return gatewayOrderId;
+    }
+    
+    public String getPaymentId() {
+        return paymentId;
+    }
+    
+    public String getPaymentStatus() {
+        return paymentStatus;
+    }
+}
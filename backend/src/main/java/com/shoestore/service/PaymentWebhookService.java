@@ -0,0 +1,126 @@
+package com.shoestore.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoestore.entity.PaymentWebhookEvent;
+import com.shoestore.repository.PaymentWebhookEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Receives payment webhooks. A verified event is stored in {@code payment_webhook_events}, keyed
+ * by the gateway's event id so redeliveries are dropped, and acknowledged straight away. Stored
+ * events are applied to orders in batches by {@link #applyPending()}.
+ */
+@Service
+public class PaymentWebhookService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWebhookService.class);
+    
+    public enum Result { ACCEPTED, DUPLICATE, IGNORED }
+    
+    @Autowired
+    private PaymentWebhookEventRepository eventRepository;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${payment.webhook.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${payment.webhook.retention-hours:168}")
+    private long retentionHours;
+    
+    public Result receive(byte[] body, String signature, String eventId) {
+        if (!paymentService.verifyWebhook(body, signature)) {
+            throw new RuntimeException("Invalid webhook signature");
+        }
+        
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new RuntimeException("Malformed webhook body");
+        }
+        String eventType = event.path("event").asText();
+        JsonNode payment = event.path("payload").path("payment").path("entity");
+        String gatewayOrderId = payment.path("order_id").asText(null);
+        String paymentId = payment.path("id").asText(null);
+        String status = paymentStatus(eventType);
+        if (status == null || gatewayOrderId == null || paymentId == null) {
+            return Result.IGNORED;
+        }
+        if (eventId == null || eventId.isBlank()) {
+            // Older deliveries carry no event id header; one payment reaches each state once
+            eventId = eventType + ":" + paymentId;
+        }
+        
+        if (eventRepository.existsById(eventId)) {
+            return Result.DUPLICATE;
+        }
+        try {
+            eventRepository.saveAndFlush(new PaymentWebhookEvent(eventId, eventType, gatewayOrderId, paymentId, status));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent delivery of the same event won the insert
+            return Result.DUPLICATE;
+        }
+        return Result.ACCEPTED;
+    }
+    
+    @Scheduled(fixedDelayString = "${payment.webhook.apply-interval-ms:1000}")
+    @Transactional
+    public void applyPending() {
+        List<PaymentWebhookEvent> pending = eventRepository.findByProcessedAtIsNullOrderByReceivedAtAsc(
+                PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PaymentUpdate> updates = pending.stream()
+                .map(e -> new PaymentUpdate(e.getGatewayOrderId(), e.getPaymentId(), e.getPaymentStatus()))
+                .toList();
+        int applied = orderService.updatePaymentStatuses(updates);
+        eventRepository.markProcessed(pending.stream().map(PaymentWebhookEvent::getEventId).toList(),
+                LocalDateTime.now());
+        logger.debug("Applied {} of {} payment webhook events", applied, pending.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${payment.webhook.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeProcessed() {
+        int removed = eventRepository.deleteProcessedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            logger.info("Purged {} processed payment webhook events", removed);
+        }
+    }
+    
+    private static String paymentStatus(String eventType) {
+        switch (eventType) {
+            case "payment.captured":
+            case "order.paid":
+                return "captured";
+            case "payment.authorized":
+                return "authorized";
+            case "payment.failed":
+                return "failed";
+            default:
+                return null;
+        }
+    }
+}
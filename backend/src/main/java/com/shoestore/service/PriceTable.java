@@ -0,0 +1,141 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.Product;
+import com.shoestore.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory price and stock table for pricing carts without loading product entities. Prices are
+ * held in minor units (paise). Entries are refreshed by the services that write products, after
+ * their transaction commits.
+ */
+@Component
+public class PriceTable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PriceTable.class);
+    
+    public static final class Entry {
+        private final long unitPrice;
+        private final int stock;
+        private final boolean active;
+        private final String name;
+        
+        Entry(long unitPrice, int stock, boolean active, String name) {
+            this.unitPrice = unitPrice;
+            this.stock = stock;
+            this.active = active;
+            this.name = name;
+        }
+        
+        public long getUnitPrice() {
+            return unitPrice;
+        }
+        
+        public int getStock() {
+            return stock;
+        }
+        
+        public boolean isActive() {
+            return active;
+        }
+        
+        public String getName() {
+            return name;
+        }
+    }
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<Object[]> rows = productRepository.findPriceRows();
+        for (Object[] row : rows) {
+            entries.put((Long) row[0], new Entry(toMinorUnits((BigDecimal) row[1]), (Integer) row[2],
+                    Boolean.TRUE.equals(row[3]), (String) row[4]));
+        }
+        logger.info("Loaded {} products into the price table", rows.size());
+    }
+    
+    /**
+     * Returns the entry for a product, loading it on a miss. Returns null for unknown products.
+     */
+    public Entry get(Long productId) {
+        Entry entry = entries.get(productId);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            Product product = productRepository.findById(productId).orElse(null);
+            if (product == null) {
+                return null;
+            }
+            entry = entryOf(product);
+            entries.putIfAbsent(productId, entry);
+        }
+        return entry;
+    }
+    
+    /**
+     * Records a product write. Inside a transaction the entry is replaced once the transaction
+     * commits, so a rollback never leaks into the table.
+     */
+    public void update(Product product) {
+        Long productId = product.getId();
+        Entry entry = entryOf(product);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.put(productId, entry);
+                }
+            });
+        } else {
+            entries.put(productId, entry);
+        }
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+    
+    public static BigDecimal fromMinorUnits(long amount) {
+        return BigDecimal.valueOf(amount, 2);
+    }
+    
+    static Entry entryOf(Product product) {
+        return new Entry(toMinorUnits(product.getPrice()), product.getStockQuantity(),
+                Boolean.TRUE.equals(product.getIsActive()), product.getName());
+    }
+}
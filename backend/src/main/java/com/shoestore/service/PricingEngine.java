@@ -0,0 +1,92 @@
+package com.shoestore.service;
+
+import com.shoestore.dto.CartSummaryDto;
+import com.shoestore.dto.CartSummaryLineDto;
+import com.shoestore.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Prices a cart from the {@link PriceTable} for display, or from product entities at checkout.
+ * All arithmetic is done in minor units so the cart page, checkout and the order total agree to
+ * the paisa.
+ */
+@Component
+public class PricingEngine {
+    
+    @Autowired
+    private PriceTable priceTable;
+    
+    @Value("${pricing.free-shipping-threshold:500}")
+    private BigDecimal freeShippingThreshold;
+    
+    @Value("${pricing.shipping-fee:50}")
+    private BigDecimal shippingFee;
+    
+    @Value("${pricing.tax-rate:0.08}")
+    private BigDecimal taxRate;
+    
+    public CartSummaryDto price(List<CartLine> lines) {
+        return price(lines, priceTable::get);
+    }
+    
+    /**
+     * Prices a cart for checkout from product entities loaded in the caller's transaction rather
+     * than the price table, which may be stale on this node. Every line's product must be present.
+     */
+    public CartSummaryDto price(List<CartLine> lines, Map<Long, Product> products) {
+        return price(lines, productId -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new RuntimeException("Product not found");
+            }
+            return PriceTable.entryOf(product);
+        });
+    }
+    
+    // Lines whose product the lookup does not know are left out
+    private CartSummaryDto price(List<CartLine> lines, Function<Long, PriceTable.Entry> lookup) {
+        List<CartSummaryLineDto> pricedLines = new ArrayList<>(lines.size());
+        long subtotal = 0;
+        int itemCount = 0;
+        for (CartLine line : lines) {
+            PriceTable.Entry entry = lookup.apply(line.getProductId());
+            if (entry == null) {
+                continue;
+            }
+            long lineTotal = Math.multiplyExact(entry.getUnitPrice(), (long) line.getQuantity());
+            subtotal = Math.addExact(subtotal, lineTotal);
+            itemCount += line.getQuantity();
+            pricedLines.add(new CartSummaryLineDto(line.getId(), line.getProductId(), entry.getName(),
+                    line.getQuantity(), PriceTable.fromMinorUnits(entry.getUnitPrice()),
+                    PriceTable.fromMinorUnits(lineTotal), entry.isActive() && entry.getStock() >= line.getQuantity()));
+        }
+        
+        long shipping = shippingFor(subtotal, pricedLines.isEmpty());
+        long tax = BigDecimal.valueOf(subtotal).multiply(taxRate).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        
+        CartSummaryDto summary = new CartSummaryDto();
+        summary.setLines(pricedLines);
+        summary.setItemCount(itemCount);
+        summary.setSubtotal(PriceTable.fromMinorUnits(subtotal));
+        summary.setShipping(PriceTable.fromMinorUnits(shipping));
+        summary.setTax(PriceTable.fromMinorUnits(tax));
+        summary.setTotal(PriceTable.fromMinorUnits(subtotal + shipping + tax));
+        return summary;
+    }
+    
+    private long shippingFor(long subtotal, boolean empty) {
+        if (empty || subtotal > PriceTable.toMinorUnits(freeShippingThreshold)) {
+            return 0;
+        }
+        return PriceTable.toMinorUnits(shippingFee);
+    }
+}
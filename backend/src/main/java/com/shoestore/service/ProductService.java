@@ -5,10 +5,12 @@ import com.shoestore.entity.Category;
 import com.shoestore.entity.Gender;
 import com.shoestore.entity.Product;
 import com.shoestore.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -20,38 +22,53 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private PriceTable priceTable;
+    
+    @Transactional(readOnly = true)
+    @Timed
     public List<ProductDto> getAllProducts() {
         return productRepository.findByIsActiveTrue().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    @Timed
     public List<ProductDto> getProductsByGender(Gender gender) {
         return productRepository.findByGenderAndIsActiveTrue(gender).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    @Timed
     public List<ProductDto> getProductsByCategory(Category category) {
         return productRepository.findByCategoryAndIsActiveTrue(category).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    @Timed
     public List<ProductDto> getProductsByGenderAndCategory(Gender gender, Category category) {
         return productRepository.findByGenderAndCategoryAndIsActiveTrue(gender, category).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    @Timed
     public List<ProductDto> searchProducts(String keyword) {
         return productRepository.searchProducts(keyword).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    @Timed
     public Optional<ProductDto> getProductById(Long id) {
-        return productRepository.findById(id)
+        return productRepository.findWithImagesById(id)
                 .filter(Product::getIsActive)
                 .map(this::convertToDto);
     }
@@ -60,6 +77,7 @@ public class ProductService {
         Product product = convertToEntity(productDto);
         product.setIsActive(true);
         Product savedProduct = productRepository.save(product);
+        priceTable.update(savedProduct);
         return convertToDto(savedProduct);
     }
     
@@ -81,6 +99,7 @@ public class ProductService {
         existingProduct.setIsActive(productDto.getIsActive());
         
         Product updatedProduct = productRepository.save(existingProduct);
+        priceTable.update(updatedProduct);
         return convertToDto(updatedProduct);
     }
     
@@ -89,8 +108,10 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setIsActive(false);
         productRepository.save(product);
+        priceTable.update(product);
     }
     
+    @Transactional(readOnly = true)
     public List<ProductDto> getLowStockProducts(Integer threshold) {
         return productRepository.findLowStockProducts(threshold).stream()
                 .map(this::convertToDto)
@@ -104,6 +125,7 @@ public class ProductService {
         if (product.getStockQuantity() >= quantity) {
             product.setStockQuantity(product.getStockQuantity() - quantity);
             productRepository.save(product);
+            priceTable.update(product);
             return true;
         }
         return false;
@@ -119,7 +141,8 @@ public class ProductService {
         dto.setBrand(product.getBrand());
         dto.setCategory(product.getCategory());
         dto.setGender(product.getGender());
-        dto.setImageUrls(product.getImageUrls());
+        // Copied so the DTO holds no Hibernate collection once the transaction ends
+        dto.setImageUrls(product.getImageUrls() == null ? null : new ArrayList<>(product.getImageUrls()));
         dto.setColor(product.getColor());
         dto.setSize(product.getSize());
         dto.setMaterial(product.getMaterial());
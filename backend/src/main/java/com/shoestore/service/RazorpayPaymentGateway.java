@@ -0,0 +1,107 @@
+package com.shoestore.service;
+
+import com.razorpay.Order;
+import com.razorpay.Payment;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.shoestore.security.HmacSha256Verifier;
+import jakarta.annotation.PostConstruct;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+    
+    @Value("${razorpay.key-id}")
+    private String razorpayKeyId;
+    
+    @Value("${razorpay.key-secret}")
+    private String razorpayKeySecret;
+    
+    // Set per webhook in the Razorpay dashboard; webhooks are rejected while it is empty
+    @Value("${razorpay.webhook-secret:}")
+    private String razorpayWebhookSecret;
+    
+    // One client for the application; it owns the HTTP connection pool
+    private RazorpayClient razorpay;
+    
+    // Checkout signatures are HMAC-SHA256 of "orderId|paymentId" keyed with the secret
+    private HmacSha256Verifier signatureVerifier;
+    
+    private HmacSha256Verifier webhookVerifier;
+    
+    @PostConstruct
+    public void init() throws RazorpayException {
+        razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+        signatureVerifier = new HmacSha256Verifier(razorpayKeySecret);
+        webhookVerifier = razorpayWebhookSecret.isEmpty() ? null : new HmacSha256Verifier(razorpayWebhookSecret);
+    }
+    
+    @Override
+    public String getName() {
+        return "razorpay";
+    }
+    
+    @Override
+    public String createOrder(BigDecimal amount, String currency, String receipt) throws RazorpayException {
+        JSONObject orderRequest = new JSONObject();
+        orderRequest.put("amount", amount.multiply(BigDecimal.valueOf(100)).intValue()); // Amount in paise
+        orderRequest.put("currency", currency);
+        orderRequest.put("receipt", receipt);
+        
+        Order order = razorpay.orders.create(orderRequest);
+        return order.get("id");
+    }
+    
+    @Override
+    public boolean verifyPayment(String orderId, String paymentId, String signature) {
+        return signatureVerifier.verifyPayment(orderId, paymentId, signature);
+    }
+    
+    @Override
+    public boolean verifyWebhook(byte[] payload, String signature) {
+        return webhookVerifier != null && webhookVerifier.verify(payload, signature);
+    }
+    
+    @Override
+    public String getPaymentStatus(String paymentId) throws RazorpayException {
+        Payment payment = razorpay.payments.fetch(paymentId);
+        return payment.get("status");
+    }
+    
+    @Override
+    public List<PaymentUpdate> fetchOrderPayments(Collection<String> gatewayOrderIds) throws RazorpayException {
+        // Razorpay has no multi-order lookup; the batch is walked on one gateway call slot
+        List<PaymentUpdate> updates = new ArrayList<>();
+        for (String gatewayOrderId : gatewayOrderIds) {
+            Payment best = null;
+            for (Payment payment : razorpay.orders.fetchPayments(gatewayOrderId)) {
+                if (best == null || rank(payment.get("status")) > rank(best.get("status"))) {
+                    best = payment;
+                }
+            }
+            if (best != null) {
+                updates.add(new PaymentUpdate(gatewayOrderId, best.get("id"), best.get("status")));
+            }
+        }
+        return updates;
+    }
+    
+    private static int rank(String status) {
+        if ("captured".equals(status) || "refunded".equals(status)) {
+            return 3;
+        }
+        if ("authorized".equals(status)) {
+            return 2;
+        }
+        return "failed".equals(status) ? 1 : 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.RefreshToken;
+import com.shoestore.entity.User;
+import com.shoestore.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Opaque, single-use refresh tokens. Each refresh revokes the presented token and issues a new one
+ * in the same family; presenting an already used token revokes the whole family, since either the
+ * client or an attacker is replaying it.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private TokenVersionService tokenVersionService;
+    
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpiration;
+    
+    public static final class Rotation {
+        private final User user;
+        private final String refreshToken;
+        
+        Rotation(User user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+        
+        public User getUser() {
+            return user;
+        }
+        
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+    
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Exchanges a refresh token for a new one. Returns empty for unknown, expired, reused or
+     * revoked tokens; any revocation this causes is committed rather than rolled back.
+     */
+    public Optional<Rotation> rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findWithUserByTokenHash(hash(rawToken)).orElse(null);
+        if (current == null) {
+            return Optional.empty();
+        }
+        
+        if (Boolean.TRUE.equals(current.getRevoked())) {
+            logger.warn("Refresh token reuse detected, revoking family {}", current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+        
+        User user = current.getUser();
+        if (current.getExpiresAt().isBefore(LocalDateTime.now()) || !user.isEnabled()
+                || tokenVersionService.currentVersion(user) != current.getTokenVersion()) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+        
+        // Revoke with a conditional update; concurrent refreshes of the same token all read it as
+        // active, and only the one whose update lands may issue a successor
+        if (refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            logger.warn("Concurrent refresh token reuse detected, revoking family {}", current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(user, issue(user, current.getFamilyId())));
+    }
+    
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+    
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(user, hash(rawToken), familyId,
+                tokenVersionService.currentVersion(user), LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration))));
+        return rawToken;
+    }
+    
+    private static String hash(String rawToken) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
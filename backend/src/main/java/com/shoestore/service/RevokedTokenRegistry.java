@@ -0,0 +1,121 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.RevokedToken;
+import com.shoestore.repository.RevokedTokenRepository;
+import com.shoestore.security.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked access tokens, by jti. Lookups go through a Bloom filter first, so the common case of a
+ * token that was never revoked is answered without touching the exact set. Rows are kept in
+ * {@code revoked_tokens} until the token would have expired anyway, and reloaded at startup.
+ */
+@Service
+public class RevokedTokenRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+    
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    
+    private volatile BloomFilter filter;
+    
+    // A lock rather than synchronized: revoke writes to the database while holding it, which would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<RevokedToken> tokens = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        for (RevokedToken token : tokens) {
+            revoked.put(token.getTokenId(), toEpochMillis(token.getExpiresAt()));
+        }
+        rebuildFilter();
+        logger.info("Loaded {} revoked tokens", tokens.size());
+    }
+    
+    public boolean isRevoked(String tokenId) {
+        return filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+    
+    @Transactional
+    public void revoke(String tokenId, Date expiresAt) {
+        lock.lock();
+        try {
+            if (revoked.containsKey(tokenId)) {
+                return;
+            }
+            revokedTokenRepository.save(new RevokedToken(tokenId,
+                    LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())));
+            revoked.put(tokenId, expiresAt.getTime());
+            filter.put(tokenId);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int size() {
+        return revoked.size();
+    }
+    
+    /**
+     * Drops revocations for tokens that have expired since. Bloom filters cannot forget, so the
+     * filter is rebuilt from what is left.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= now) || deleted > 0) {
+            rebuildFilter();
+        }
+    }
+    
+    private void rebuildFilter() {
+        lock.lock();
+        try {
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+            for (String tokenId : revoked.keySet()) {
+                rebuilt.put(tokenId);
+            }
+            filter = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,84 @@
+package com.shoestore.service;
+
+import com.shoestore.security.HmacSha256Verifier;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Local gateway for development and load tests. Orders are never sent anywhere; signatures use
+ * the same HMAC-SHA256 scheme as Razorpay with {@code payment.stub.secret}, so a client can sign
+ * its own test payments. An artificial latency can be configured to exercise timeouts.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+    
+    @Value("${payment.stub.secret:stub_secret}")
+    private String secret;
+    
+    @Value("${payment.stub.latency-ms:0}")
+    private long latencyMs;
+    
+    // What reconciliation reports for every order, so stale orders can be resolved locally
+    @Value("${payment.stub.reconcile-status:captured}")
+    private String reconcileStatus;
+    
+    private HmacSha256Verifier signatureVerifier;
+    
+    @PostConstruct
+    public void init() {
+        signatureVerifier = new HmacSha256Verifier(secret);
+    }
+    
+    @Override
+    public String getName() {
+        return "stub";
+    }
+    
+    @Override
+    public String createOrder(BigDecimal amount, String currency, String receipt) throws InterruptedException {
+        simulateLatency();
+        return "order_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+    }
+    
+    @Override
+    public boolean verifyPayment(String orderId, String paymentId, String signature) {
+        return signatureVerifier.verifyPayment(orderId, paymentId, signature);
+    }
+    
+    @Override
+    public boolean verifyWebhook(byte[] payload, String signature) {
+        return signatureVerifier.verify(payload, signature);
+    }
+    
+    @Override
+    public String getPaymentStatus(String paymentId) throws InterruptedException {
+        simulateLatency();
+        return "captured";
+    }
+    
+    @Override
+    public List<PaymentUpdate> fetchOrderPayments(Collection<String> gatewayOrderIds) throws InterruptedException {
+        simulateLatency();
+        return gatewayOrderIds.stream()
+                .map(id -> new PaymentUpdate(id, "pay_stub_" + id.substring(id.lastIndexOf('_') + 1), reconcileStatus))
+                .toList();
+    }
+    
+    public String sign(String payload) {
+        return signatureVerifier.sign(payload);
+    }
+    
+    private void simulateLatency() throws InterruptedException {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+    }
+}
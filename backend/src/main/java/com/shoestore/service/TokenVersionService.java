@@ -0,0 +1,113 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.Role;
+import com.shoestore.entity.User;
+import com.shoestore.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the current token version of every user in memory so the JWT filter can reject revoked
+ * tokens without a query. Disabled users map to {@link #DISABLED}, which no token carries.
+ */
+@Service
+public class TokenVersionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionService.class);
+    
+    private static final long DISABLED = -1L;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<Object[]> rows = userRepository.findTokenStates();
+        for (Object[] row : rows) {
+            versions.put((Long) row[0], effectiveVersion((Long) row[1], (Boolean) row[2]));
+        }
+        logger.info("Loaded token versions for {} users", rows.size());
+    }
+    
+    public boolean isCurrent(Long userId, long version) {
+        Long current = versions.get(userId);
+        if (current == null) {
+            // Only users unseen since startup get here; unknown ids are cached as disabled
+            current = userRepository.findById(userId)
+                    .map(user -> effectiveVersion(user.getTokenVersion(), user.getEnabled()))
+                    .orElse(DISABLED);
+            versions.putIfAbsent(userId, current);
+        }
+        return current != DISABLED && current == version;
+    }
+    
+    public long currentVersion(User user) {
+        return user.getTokenVersion() == null ? 0L : user.getTokenVersion();
+    }
+    
+    public void register(User user) {
+        versions.put(user.getId(), effectiveVersion(user.getTokenVersion(), user.getEnabled()));
+    }
+    
+    @Transactional
+    public void changeRole(Long userId, Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        user.setRole(role);
+        revoke(user);
+    }
+    
+    @Transactional
+    public void setEnabled(Long userId, boolean enabled) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        user.setEnabled(enabled);
+        revoke(user);
+    }
+    
+    @Transactional
+    public void revokeAll(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        revoke(user);
+    }
+    
+    /**
+     * Bumps the user's token version so every token issued so far is rejected. The in-memory
+     * version is switched once the change has committed.
+     */
+    @Transactional
+    public void revoke(User user) {
+        user.setTokenVersion(currentVersion(user) + 1);
+        userRepository.save(user);
+        
+        Long userId = user.getId();
+        long version = effectiveVersion(user.getTokenVersion(), user.getEnabled());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.put(userId, version);
+            }
+        });
+    }
+    
+    private static long effectiveVersion(Long tokenVersion, Boolean enabled) {
+        if (Boolean.FALSE.equals(enabled)) {
+            return DISABLED;
+        }
+        return tokenVersion == null ? 0L : tokenVersion;
+    }
+}
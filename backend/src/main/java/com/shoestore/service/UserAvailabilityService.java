@@ -0,0 +1,84 @@
+package com.shoestore.service;
+
+import com.shoestore.repository.UserRepository;
+import com.shoestore.security.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Answers "is this username / email free?" from Bloom filters of the taken values. A miss is
+ * definitive; only a possible hit is confirmed against the unique index. Values are lowercased,
+ * matching the case-insensitive collation of the {@code users} table.
+ */
+@Service
+public class UserAvailabilityService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${auth.availability.expected-users:100000}")
+    private int expectedUsers;
+    
+    @Value("${auth.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    // Null until loaded; lookups go straight to the database before that
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<Object[]> rows = userRepository.findUsernamesAndEmails();
+        int size = Math.max(expectedUsers, rows.size() * 2);
+        BloomFilter loadedUsernames = new BloomFilter(size, falsePositiveRate);
+        BloomFilter loadedEmails = new BloomFilter(size, falsePositiveRate);
+        for (Object[] row : rows) {
+            loadedUsernames.put(normalize((String) row[0]));
+            loadedEmails.put(normalize((String) row[1]));
+        }
+        usernames = loadedUsernames;
+        emails = loadedEmails;
+        logger.info("Loaded {} usernames and emails into the availability filters", rows.size());
+    }
+    
+    public boolean isUsernameAvailable(String username) {
+        BloomFilter filter = usernames;
+        if (filter != null && !filter.mightContain(normalize(username))) {
+            return true;
+        }
+        return !userRepository.existsByUsername(username);
+    }
+    
+    public boolean isEmailAvailable(String email) {
+        BloomFilter filter = emails;
+        if (filter != null && !filter.mightContain(normalize(email))) {
+            return true;
+        }
+        return !userRepository.existsByEmail(email);
+    }
+    
+    public void registered(String username, String email) {
+        BloomFilter usernameFilter = usernames;
+        BloomFilter emailFilter = emails;
+        if (usernameFilter != null) {
+            usernameFilter.put(normalize(username));
+        }
+        if (emailFilter != null) {
+            emailFilter.put(normalize(email));
+        }
+    }
+    
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,247 @@
+package com.shoestore.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps active carts in memory, keyed by user id, and writes them to {@code cart_items} in
+ * coalesced batches. A cart that misses the cache is loaded from the table, which is how carts
+ * survive a restart. Line ids in this mode are product ids, since a cart holds one line per product.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "memory")
+public class WriteBehindCartStore implements CartStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindCartStore.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${cart.store.max-carts:100000}")
+    private int maxCarts;
+    
+    @Value("${cart.store.idle-timeout-ms:1800000}")
+    private long idleTimeoutMs;
+    
+    @Value("${cart.store.flush-batch-size:500}")
+    private int flushBatchSize;
+    
+    private final Map<Long, CompactCart> carts = new ConcurrentHashMap<>();
+    
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    
+    @Override
+    public List<CartLine> getLines(Long userId) {
+        CompactCart snapshot = withCart(userId, CompactCart::snapshot);
+        List<CartLine> lines = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            lines.add(new CartLine(snapshot.productIdAt(i), snapshot.productIdAt(i), snapshot.quantityAt(i)));
+        }
+        return lines;
+    }
+    
+    @Override
+    public CartLine addQuantity(Long userId, Long productId, int quantity) {
+        int total = mutate(userId, cart -> cart.add(productId, quantity));
+        return new CartLine(productId, productId, total);
+    }
+    
+    @Override
+    public CartLine getLine(Long userId, Long lineId) {
+        int quantity = withCart(userId, cart -> cart.get(lineId));
+        if (quantity == 0) {
+            throw new RuntimeException("Cart item not found with id: " + lineId);
+        }
+        return new CartLine(lineId, lineId, quantity);
+    }
+    
+    @Override
+    public CartLine setQuantity(Long userId, Long lineId, int quantity) {
+        boolean updated = mutate(userId, cart -> cart.set(lineId, quantity));
+        if (!updated) {
+            throw new RuntimeException("Cart item not found with id: " + lineId);
+        }
+        return new CartLine(lineId, lineId, quantity);
+    }
+    
+    @Override
+    public void removeLine(Long userId, Long lineId) {
+        boolean removed = mutate(userId, cart -> cart.remove(lineId));
+        if (!removed) {
+            throw new RuntimeException("Cart item not found with id: " + lineId);
+        }
+    }
+    
+    @Override
+    public void clear(Long userId) {
+        mutate(userId, cart -> {
+            cart.clear();
+            return null;
+        });
+    }
+    
+    @Override
+    public List<CartLine> applyChanges(Long userId, Map<Long, Integer> quantities) {
+        mutate(userId, cart -> {
+            quantities.forEach((productId, quantity) -> {
+                if (quantity <= 0) {
+                    cart.remove(productId);
+                } else if (!cart.set(productId, quantity)) {
+                    cart.add(productId, quantity);
+                }
+            });
+            return null;
+        });
+        return getLines(userId);
+    }
+    
+    @Override
+    public void forget(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            CompactCart cart = carts.get(userId);
+            if (cart != null) {
+                evict(userId, cart);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}")
+    public void flushAndEvict() {
+        flush();
+        evict();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        while (!dirty.isEmpty()) {
+            if (flush() == 0) {
+                break;
+            }
+        }
+    }
+    
+    private <T> T withCart(Long userId, Function<CompactCart, T> action) {
+        while (true) {
+            CompactCart cart = loadCart(userId);
+            synchronized (cart) {
+                if (!cart.isEvicted()) {
+                    cart.touch();
+                    return action.apply(cart);
+                }
+            }
+        }
+    }
+    
+    private <T> T mutate(Long userId, Function<CompactCart, T> action) {
+        return withCart(userId, cart -> {
+            T result = action.apply(cart);
+            dirty.add(userId);
+            return result;
+        });
+    }
+    
+    private CompactCart loadCart(Long userId) {
+        CompactCart cart = carts.get(userId);
+        if (cart != null) {
+            return cart;
+        }
+        CompactCart loaded = new CompactCart();
+        jdbcTemplate.query("SELECT product_id, quantity FROM cart_items WHERE user_id = ? ORDER BY id",
+                rs -> {
+                    loaded.add(rs.getLong(1), rs.getInt(2));
+                }, userId);
+        CompactCart existing = carts.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+    
+    private int flush() {
+        List<Long> userIds = new ArrayList<>(flushBatchSize);
+        Iterator<Long> iterator = dirty.iterator();
+        while (iterator.hasNext() && userIds.size() < flushBatchSize) {
+            Long userId = iterator.next();
+            iterator.remove();
+            userIds.add(userId);
+        }
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> deletes = new ArrayList<>(userIds.size());
+        List<Object[]> inserts = new ArrayList<>();
+        for (Long userId : userIds) {
+            CompactCart cart = carts.get(userId);
+            if (cart == null) {
+                continue;
+            }
+            CompactCart snapshot = cart.snapshot();
+            deletes.add(new Object[] { userId });
+            for (int i = 0; i < snapshot.size(); i++) {
+                inserts.add(new Object[] { userId, snapshot.productIdAt(i), snapshot.quantityAt(i), now, now });
+            }
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE user_id = ?", deletes);
+                jdbcTemplate.batchUpdate("INSERT INTO cart_items (user_id, product_id, quantity, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", inserts);
+            });
+        } catch (RuntimeException e) {
+            dirty.addAll(userIds);
+            logger.error("Failed to flush {} carts: {}", userIds.size(), e.getMessage());
+            return 0;
+        }
+        return userIds.size();
+    }
+    
+    private void evict() {
+        long idleBefore = System.currentTimeMillis() - idleTimeoutMs;
+        carts.forEach((userId, cart) -> {
+            if (cart.getLastAccess() < idleBefore) {
+                evict(userId, cart);
+            }
+        });
+        
+        int excess = carts.size() - maxCarts;
+        if (excess > 0) {
+            carts.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().getLastAccess()))
+                    .limit(excess)
+                    .forEach(entry -> evict(entry.getKey(), entry.getValue()));
+        }
+    }
+    
+    private void evict(Long userId, CompactCart cart) {
+        synchronized (cart) {
+            // Dirty carts stay until the next flush has written them
+            if (dirty.contains(userId)) {
+                return;
+            }
+            cart.markEvicted();
+            carts.remove(userId, cart);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.shoestore.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Asserts that a block of code stays within a number of SQL statements, for integration tests
+ * guarding against N+1 regressions:
+ *
+ * <pre>
+ * List&lt;OrderDto&gt; orders = SqlStatementBudget.expectAtMost(3, () -&gt; orderService.getUserOrders());
+ * </pre>
+ *
+ * Throws an {@link AssertionError} listing the repeated statements when the budget is exceeded.
+ */
+public final class SqlStatementBudget {
+    
+    private static final int REPEAT_THRESHOLD = 2;
+    
+    private SqlStatementBudget() {}
+    
+    public static <T> T expectAtMost(int max, Supplier<T> action) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            T result = action.get();
+            if (scope.getCount() > max) {
+                throw new AssertionError("Expected at most " + max + " SQL statements but ran "
+                        + scope.getCount() + "; repeated: " + scope.getRepeated(REPEAT_THRESHOLD));
+            }
+            return result;
+        }
+    }
+    
+    public static void expectAtMost(int max, Runnable action) {
+        expectAtMost(max, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.shoestore.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.shoestore.service.StubPaymentGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs concurrent checkouts against the server with virtual threads enabled and requires that no
+ * request thread was pinned: sign-in goes through the password hashing pool, browsing and orders
+ * through Hikari and JDBC, and payment orders through the gateway bulkhead with some latency.
+ * Every pin is caught, not just those over the production threshold.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "threads.pinning-monitor.threshold-ms=0",
+        "payment.stub.latency-ms=20",
+        // Every shopper signs up and in at once; wait for the hashing pool rather than fail
+        "security.password.wait-timeout-ms=60000"
+})
+@ActiveProfiles("test")
+class VirtualThreadPinningTest {
+    
+    private static final int SHOPPERS = 8;
+    private static final int CHECKOUTS_PER_SHOPPER = 5;
+    private static final String PASSWORD = "pinning-test";
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Autowired
+    private VirtualThreadPinningMonitor monitor;
+    
+    @Autowired
+    private StubPaymentGateway stubPaymentGateway;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void checkoutDoesNotPinVirtualThreads() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(SHOPPERS);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int i = 0; i < SHOPPERS; i++) {
+                String username = "pin_user_" + i;
+                runs.add(clients.submit(() -> shop(username)));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        
+        // JFR hands events to the stream about once a second
+        Thread.sleep(2500);
+        assertEquals(0, monitor.getPinnedEvents(), () -> "Pinned at: " + monitor.getPinnedSites());
+    }
+    
+    private Void shop(String username) throws JsonProcessingException {
+        post("/api/auth/signup", Map.of("username", username, "email", username + "@pinning.example",
+                "password", PASSWORD, "firstName", "Pinning", "lastName", "Test"), null);
+        String token = post("/api/auth/signin", Map.of("username", username, "password", PASSWORD), null)
+                .path("token").asText();
+        
+        for (int i = 0; i < CHECKOUTS_PER_SHOPPER; i++) {
+            JsonNode products = exchange(HttpMethod.GET, "/api/products", null, null);
+            long productId = products.get(i % products.size()).path("id").asLong();
+            post("/api/cart/add", Map.of("productId", productId, "quantity", 1), token);
+            long orderId = post("/api/orders", Map.of("shippingAddress", "1 Pinning Road", "city", "Pune",
+                    "state", "MH", "zipCode", "411001", "country", "India", "totalAmount", 1), token).path("id").asLong();
+            
+            String gatewayOrderId = post("/api/orders/" + orderId + "/payment", null, token)
+                    .path("razorpayOrderId").asText();
+            String paymentId = "pay_pin_" + orderId;
+            String signature = stubPaymentGateway.sign(gatewayOrderId + "|" + paymentId);
+            post("/api/orders/" + orderId + "/verify-payment?paymentId=" + paymentId + "&signature=" + signature,
+                    null, token);
+        }
+        return null;
+    }
+    
+    private JsonNode post(String path, Object body, String token) throws JsonProcessingException {
+        return exchange(HttpMethod.POST, path, body, token);
+    }
+    
+    private JsonNode exchange(HttpMethod method, String path, Object body, String token) throws JsonProcessingException {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        ResponseEntity<String> response = restTemplate.exchange(path, method, new HttpEntity<>(body, headers), String.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful(),
+                () -> method + " " + path + " returned " + response.getStatusCode() + ": " + response.getBody());
+        // Some endpoints answer with plain text
+        String content = response.getBody();
+        return content != null && (content.startsWith("{") || content.startsWith("["))
+                ? objectMapper.readTree(content) : TextNode.valueOf(String.valueOf(content));
+    }
+}
@@ -0,0 +1,60 @@
+package com.shoestore.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+    
+    private static final String PASSWORD = "correct-password";
+    
+    private BoundedPasswordEncoder encoder;
+    
+    @AfterEach
+    void shutDown() {
+        encoder.shutdown();
+    }
+    
+    @Test
+    void busyPoolSurfacesUnwrappedThroughAuthentication() {
+        // A zero wait means every hash times out, as under a saturated pool
+        encoder = new BoundedPasswordEncoder(4, 1, 1, 0);
+        AuthenticationManager manager = authenticationManager(encoder);
+        
+        assertThrows(PasswordHashingBusyException.class,
+                () -> manager.authenticate(new UsernamePasswordAuthenticationToken("shopper", PASSWORD)));
+        assertThrows(PasswordHashingBusyException.class,
+                () -> manager.authenticate(new UsernamePasswordAuthenticationToken("unknown", PASSWORD)));
+    }
+    
+    @Test
+    void wrongPasswordIsStillBadCredentials() {
+        encoder = new BoundedPasswordEncoder(4, 1, 8, 10000);
+        AuthenticationManager manager = authenticationManager(encoder);
+        
+        assertTrue(manager.authenticate(new UsernamePasswordAuthenticationToken("shopper", PASSWORD)).isAuthenticated());
+        assertThrows(BadCredentialsException.class,
+                () -> manager.authenticate(new UsernamePasswordAuthenticationToken("shopper", "wrong-password")));
+    }
+    
+    private static AuthenticationManager authenticationManager(BoundedPasswordEncoder encoder) {
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(User.withUsername("shopper")
+                .password(new BCryptPasswordEncoder(4).encode(PASSWORD))
+                .roles("USER")
+                .build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(encoder);
+        return new ProviderManager(provider);
+    }
+}
@@ -0,0 +1,116 @@
+package com.shoestore.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HmacSha256VerifierTest {
+    
+    private static final HexFormat HEX = HexFormat.of();
+    
+    private static final String SECRET = "test_key_secret";
+    private static final String ORDER_ID = "order_NJk2b7cYtT8Lq3";
+    private static final String PAYMENT_ID = "pay_NJk2q9XvZr1bWd";
+    
+    private final HmacSha256Verifier verifier = new HmacSha256Verifier(SECRET);
+    
+    // RFC 4231 test case 1
+    @Test
+    void matchesKnownVectorWithShortBinaryKey() {
+        expectVector(new HmacSha256Verifier(HEX.parseHex("0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b")),
+                "Hi There",
+                "b0344c61d8db38535ca8afceaf0bf12b881dc200c9833da726e9376c2e32cff7");
+    }
+    
+    // RFC 4231 test case 2
+    @Test
+    void matchesKnownVectorWithStringKey() {
+        expectVector(new HmacSha256Verifier("Jefe"),
+                "what do ya want for nothing?",
+                "5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843");
+    }
+    
+    // RFC 4231 test case 6, a key longer than the block size
+    @Test
+    void matchesKnownVectorWithLongKey() {
+        byte[] key = new byte[131];
+        Arrays.fill(key, (byte) 0xaa);
+        expectVector(new HmacSha256Verifier(key),
+                "Test Using Larger Than Block-Size Key - Hash Key First",
+                "60e431591ee0b67f0d8a26aacbf5b77f8e0bc6213728c5140546040f0ee37f54");
+    }
+    
+    @Test
+    void acceptsUppercaseHex() {
+        String signature = verifier.sign(ORDER_ID + "|" + PAYMENT_ID);
+        
+        assertTrue(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, signature.toUpperCase()));
+    }
+    
+    @Test
+    void verifyPaymentSignsOrderAndPaymentIds() {
+        String signature = verifier.sign(ORDER_ID + "|" + PAYMENT_ID);
+        
+        assertTrue(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, signature));
+        assertFalse(verifier.verifyPayment(PAYMENT_ID, ORDER_ID, signature));
+    }
+    
+    @Test
+    void rejectsTamperedSignature() {
+        String signature = verifier.sign(ORDER_ID + "|" + PAYMENT_ID);
+        String tampered = signature.substring(0, 63) + (signature.charAt(63) == '0' ? '1' : '0');
+        
+        assertFalse(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, tampered));
+    }
+    
+    @Test
+    void rejectsWrongLength() {
+        String signature = verifier.sign(ORDER_ID + "|" + PAYMENT_ID);
+        
+        assertFalse(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, signature.substring(1)));
+        assertFalse(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, signature + "0"));
+        assertFalse(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, ""));
+        assertFalse(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, null));
+    }
+    
+    @Test
+    void rejectsNonHexCharacters() {
+        String signature = verifier.sign(ORDER_ID + "|" + PAYMENT_ID);
+        
+        assertFalse(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, "zz" + signature.substring(2)));
+        // 'g' sits right after 'f' and must not decode as 16
+        assertFalse(verifier.verifyPayment(ORDER_ID, PAYMENT_ID, signature.substring(0, 62) + "gg"));
+    }
+    
+    @Test
+    void encodesNonAsciiInputAsUtf8() throws Exception {
+        // Long enough that the non-ASCII tail starts past the first scratch buffer
+        String payload = "a".repeat(300) + "é€👟|order";
+        String expected = reference(SECRET.getBytes(StandardCharsets.UTF_8), payload.getBytes(StandardCharsets.UTF_8));
+        
+        assertEquals(expected, verifier.sign(payload));
+        assertTrue(verifier.verify(payload, expected));
+        assertTrue(verifier.verify(payload.getBytes(StandardCharsets.UTF_8), expected));
+        assertTrue(verifier.verifyPayment("a".repeat(300) + "é€👟", "order", expected));
+    }
+    
+    private static void expectVector(HmacSha256Verifier verifier, String data, String mac) {
+        assertEquals(mac, verifier.sign(data));
+        assertTrue(verifier.verify(data, mac));
+        assertTrue(verifier.verify(data.getBytes(StandardCharsets.US_ASCII), mac));
+    }
+    
+    private static String reference(byte[] key, byte[] data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return HEX.formatHex(mac.doFinal(data));
+    }
+}
@@ -0,0 +1,114 @@
+package com.shoestore.service;
+
+import com.shoestore.dto.OrderDto;
+import com.shoestore.entity.Category;
+import com.shoestore.entity.Gender;
+import com.shoestore.entity.Product;
+import com.shoestore.entity.Role;
+import com.shoestore.entity.User;
+import com.shoestore.repository.ProductRepository;
+import com.shoestore.repository.UserRepository;
+import com.shoestore.security.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checkout prices the order from the product rows it loads, so a price changed behind this node's
+ * {@link PriceTable} (another instance, a bulk JDBC update) is still charged correctly.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutPricingTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private PriceTable priceTable;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long userId;
+    
+    @BeforeEach
+    void signInAsNewShopper() {
+        String username = "checkout_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(new User(username, username + "@checkout.example", "x", "Checkout", "Test"));
+        userId = user.getId();
+        JwtPrincipal principal = new JwtPrincipal(user.getId(), user.getUsername(), Role.USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+    
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void orderUsesCurrentPriceNotThePriceTable() {
+        Long productId = newProduct("400.00");
+        cartService.addToCart(productId, 2);
+        jdbcTemplate.update("UPDATE products SET price = ? WHERE id = ?", new BigDecimal("300.00"), productId);
+        assertEquals(40000, priceTable.get(productId).getUnitPrice());
+        
+        OrderDto order = orderService.createOrder(shippingDetails());
+        
+        // 600.00 is over the free shipping threshold; 8% tax
+        assertEquals(new BigDecimal("648.00"), order.getTotalAmount());
+        assertEquals(new BigDecimal("300.00"), order.getOrderItems().get(0).getPrice());
+    }
+    
+    @Test
+    void inactiveProductRejectsCheckoutAndKeepsTheCart() {
+        Long productId = newProduct("120.00");
+        cartService.addToCart(productId, 1);
+        jdbcTemplate.update("UPDATE products SET is_active = false WHERE id = ?", productId);
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> orderService.createOrder(shippingDetails()));
+        assertEquals("Product is no longer available: Checkout Shoe", e.getMessage());
+        assertEquals(1, cartService.getCartLines(userId).size());
+    }
+    
+    private Long newProduct(String price) {
+        Product product = new Product("Checkout Shoe", "Priced at checkout", new BigDecimal(price), 10,
+                "Test", Category.RUNNING, Gender.MEN);
+        Long productId = productRepository.save(product).getId();
+        // Load the entry so the table holds the price from before the update
+        priceTable.get(productId);
+        return productId;
+    }
+    
+    private static OrderDto shippingDetails() {
+        OrderDto order = new OrderDto();
+        order.setShippingAddress("1 Test Street");
+        order.setCity("Test City");
+        order.setState("CA");
+        order.setZipCode("90001");
+        order.setCountry("USA");
+        return order;
+    }
+}
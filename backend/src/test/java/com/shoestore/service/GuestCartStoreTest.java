@@ -0,0 +1,60 @@
+package com.shoestore.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "cart.guest.max-carts=10",
+        "cart.guest.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class GuestCartStoreTest {
+    
+    private static final Long PRODUCT_ID = 1L;
+    
+    @Autowired
+    private GuestCartStore guestCartStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void fullStoreMakesRoomFromEmptyCarts() {
+        String saved = guestCartStore.create();
+        guestCartStore.add(saved, PRODUCT_ID, 2);
+        guestCartStore.flushAndEvict();
+        List<String> empty = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            empty.add(guestCartStore.create());
+        }
+        
+        assertEquals(2, guestCartStore.snapshot(saved).quantityAt(0));
+        assertThrows(RuntimeException.class, () -> guestCartStore.snapshot(empty.get(0)));
+        assertEquals(0, guestCartStore.snapshot(empty.get(empty.size() - 1)).size());
+    }
+    
+    @Test
+    void failedMergeKeepsUnflushedEdits() {
+        String token = guestCartStore.create();
+        guestCartStore.add(token, PRODUCT_ID, 3);
+        
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            guestCartStore.take(token);
+            throw new IllegalStateException("merge failed");
+        }));
+        assertEquals(3, guestCartStore.snapshot(token).quantityAt(0));
+        
+        transactionTemplate.executeWithoutResult(status -> guestCartStore.take(token));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> guestCartStore.snapshot(token));
+        assertEquals("Guest cart not found", e.getMessage());
+    }
+}
@@ -0,0 +1,118 @@
+package com.shoestore.service;
+
+import com.shoestore.entity.Order;
+import com.shoestore.entity.OrderStatus;
+import com.shoestore.entity.User;
+import com.shoestore.repository.OrderRepository;
+import com.shoestore.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentWebhookServiceTest {
+    
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+    
+    @Autowired
+    private PaymentReconciler paymentReconciler;
+    
+    @Autowired
+    private StubPaymentGateway stubPaymentGateway;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void rejectsBadSignature() {
+        String body = webhookBody("payment.captured", "order_bad", "pay_bad");
+        String forged = stubPaymentGateway.sign(body + " ");
+        
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> paymentWebhookService.receive(bytes(body), forged, "evt_" + UUID.randomUUID()));
+        assertEquals("Invalid webhook signature", e.getMessage());
+    }
+    
+    @Test
+    void redeliveredEventIsDuplicate() {
+        String body = webhookBody("payment.captured", "order_" + UUID.randomUUID(), "pay_dup");
+        String eventId = "evt_" + UUID.randomUUID();
+        
+        assertEquals(PaymentWebhookService.Result.ACCEPTED, receive(body, eventId));
+        assertEquals(PaymentWebhookService.Result.DUPLICATE, receive(body, eventId));
+    }
+    
+    @Test
+    void applyPendingConfirmsPendingOrder() {
+        Order order = pendingOrder();
+        
+        receive(webhookBody("payment.captured", order.getGatewayOrderId(), "pay_ok"), "evt_" + UUID.randomUUID());
+        paymentWebhookService.applyPending();
+        
+        Order updated = orderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.CONFIRMED, updated.getStatus());
+        assertEquals("captured", updated.getPaymentStatus());
+        assertEquals("pay_ok", updated.getPaymentId());
+    }
+    
+    @Test
+    void laterFailureDoesNotDowngradeCapturedPayment() {
+        Order order = pendingOrder();
+        
+        receive(webhookBody("payment.captured", order.getGatewayOrderId(), "pay_first"), "evt_" + UUID.randomUUID());
+        paymentWebhookService.applyPending();
+        receive(webhookBody("payment.failed", order.getGatewayOrderId(), "pay_retry"), "evt_" + UUID.randomUUID());
+        paymentWebhookService.applyPending();
+        
+        Order updated = orderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.CONFIRMED, updated.getStatus());
+        assertEquals("captured", updated.getPaymentStatus());
+        assertEquals("pay_first", updated.getPaymentId());
+    }
+    
+    @Test
+    void reconcileResolvesStalePendingOrder() {
+        // The stub reports payment.stub.reconcile-status, captured by default, for every order
+        Order order = pendingOrder();
+        
+        paymentReconciler.reconcile();
+        
+        Order updated = orderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.CONFIRMED, updated.getStatus());
+        assertEquals("captured", updated.getPaymentStatus());
+    }
+    
+    private PaymentWebhookService.Result receive(String body, String eventId) {
+        return paymentWebhookService.receive(bytes(body), stubPaymentGateway.sign(body), eventId);
+    }
+    
+    private Order pendingOrder() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Order order = new Order(admin, new BigDecimal("1500.00"), "1 Test Street", "Test City", "CA", "90001", "USA");
+        order.setGatewayOrderId("order_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14));
+        order.setGatewayOrderAmount(order.getTotalAmount());
+        return orderRepository.save(order);
+    }
+    
+    private static String webhookBody(String event, String gatewayOrderId, String paymentId) {
+        return "{\"event\":\"" + event + "\",\"payload\":{\"payment\":{\"entity\":{\"id\":\"" + paymentId
+                + "\",\"order_id\":\"" + gatewayOrderId + "\"}}}}";
+    }
+    
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
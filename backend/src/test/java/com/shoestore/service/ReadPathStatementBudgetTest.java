@@ -0,0 +1,70 @@
+package com.shoestore.service;
+
+import com.shoestore.config.SqlStatementBudget;
+import com.shoestore.dto.OrderDto;
+import com.shoestore.dto.ProductDto;
+import com.shoestore.entity.Role;
+import com.shoestore.entity.User;
+import com.shoestore.repository.UserRepository;
+import com.shoestore.security.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Locks in the fetch plans of the main read paths: each runs a fixed number of statements however
+ * many rows it returns, and the DTOs are complete once the transaction has ended.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadPathStatementBudgetTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @BeforeEach
+    void signInAsAdmin() {
+        // DataInitializer seeds the admin user with demo orders
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        JwtPrincipal principal = new JwtPrincipal(admin.getId(), admin.getUsername(), Role.ADMIN);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+    
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void userOrdersLoadItemsProductsAndImagesWithoutNPlusOne() {
+        List<OrderDto> orders = SqlStatementBudget.expectAtMost(2, () -> orderService.getUserOrders());
+        
+        assertFalse(orders.isEmpty());
+        orders.forEach(order -> order.getOrderItems().forEach(item ->
+                assertFalse(item.getProduct().getImageUrls().isEmpty())));
+    }
+    
+    @Test
+    void productListLoadsImagesInTheSameQuery() {
+        List<ProductDto> products = SqlStatementBudget.expectAtMost(1, () -> productService.getAllProducts());
+        
+        assertFalse(products.isEmpty());
+        products.forEach(product -> assertFalse(product.getImageUrls().isEmpty()));
+    }
+}
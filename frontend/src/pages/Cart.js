@@ -1,9 +1,10 @@
-import React, { useEffect } from 'react';
+import React, { useEffect, useRef } from 'react';
 import { Link, useNavigate } from 'react-router-dom';
 import { useDispatch, useSelector } from 'react-redux';
 import { 
   fetchCartItems, 
-  updateCartItem, 
+  applyCartBatch, 
+  setItemQuantity, 
   removeFromCart, 
   clearCart 
 } from '../store/slices/cartSlice';
@@ -14,15 +15,46 @@ const Cart = () => {
   const navigate = useNavigate();
   const { items: cartItems, loading } = useSelector((state) => state.cart);
 
+  // Quantity edits are collected briefly and sent as one batch request
+  const pendingUpdates = useRef({});
+  const flushTimer = useRef(null);
+
   useEffect(() => {
     dispatch(fetchCartItems());
   }, [dispatch]);
 
+  const flushPendingUpdates = () => {
+    const operations = Object.entries(pendingUpdates.current).map(([cartItemId, quantity]) => ({
+      type: 'UPDATE',
+      cartItemId: Number(cartItemId),
+      quantity,
+    }));
+    pendingUpdates.current = {};
+    flushTimer.current = null;
+    if (operations.length > 0) {
+      dispatch(applyCartBatch(operations));
+    }
+  };
+
+  useEffect(() => () => {
+    if (flushTimer.current) {
+      clearTimeout(flushTimer.current);
+      flushPendingUpdates();
+    }
+  // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+
   const handleUpdateQuantity = (cartItemId, newQuantity) => {
     if (newQuantity <= 0) {
+      delete pendingUpdates.current[cartItemId];
       dispatch(removeFromCart(cartItemId));
     } else {
-      dispatch(updateCartItem({ cartItemId, quantity: newQuantity }));
+      dispatch(setItemQuantity({ cartItemId, quantity: newQuantity }));
+      pendingUpdates.current[cartItemId] = newQuantity;
+      if (flushTimer.current) {
+        clearTimeout(flushTimer.current);
+      }
+      flushTimer.current = setTimeout(flushPendingUpdates, 400);
     }
   };
 
@@ -4,12 +4,14 @@ import { useDispatch, useSelector } from 'react-redux';
 import { useForm } from 'react-hook-form';
 import { createOrder, createPaymentOrder, verifyPayment } from '../store/slices/orderSlice';
 import { fetchCartItems } from '../store/slices/cartSlice';
+import { cartService } from '../services/cartService';
 import { CreditCard, MapPin, User, Phone, Mail } from 'lucide-react';
 import toast from 'react-hot-toast';
 
 const Checkout = () => {
   const [paymentMethod, setPaymentMethod] = useState('razorpay');
   const [isProcessingPayment, setIsProcessingPayment] = useState(false);
+  const [summary, setSummary] = useState(null);
   
   const dispatch = useDispatch();
   const navigate = useNavigate();
@@ -24,6 +26,9 @@ const Checkout = () => {
 
   useEffect(() => {
     dispatch(fetchCartItems());
+    cartService.getSummary()
+      .then(setSummary)
+      .catch(() => setSummary(null));
   }, [dispatch]);
 
   useEffect(() => {
@@ -39,13 +44,11 @@ const Checkout = () => {
     }).format(price);
   };
 
-  const subtotal = cartItems.reduce((total, item) => {
-    return total + (item.product.price * item.quantity);
-  }, 0);
-
-  const shipping = subtotal > 500 ? 0 : 50;
-  const tax = subtotal * 0.08;
-  const total = subtotal + shipping + tax;
+  // Totals come from the server so they match what the order is charged
+  const subtotal = summary ? summary.subtotal : 0;
+  const shipping = summary ? summary.shipping : 0;
+  const tax = summary ? summary.tax : 0;
+  const total = summary ? summary.total : 0;
 
   const onSubmit = async (data) => {
     try {
@@ -62,7 +65,7 @@ const Checkout = () => {
       const order = await dispatch(createOrder(orderData)).unwrap();
       
       if (paymentMethod === 'razorpay') {
-        await handleRazorpayPayment(order.id);
+        await handleRazorpayPayment(order.id, order.totalAmount);
       } else {
         // Handle other payment methods
         toast.success('Order placed successfully!');
@@ -73,7 +76,7 @@ const Checkout = () => {
     }
   };
 
-  const handleRazorpayPayment = async (orderId) => {
+  const handleRazorpayPayment = async (orderId, amount) => {
     try {
       setIsProcessingPayment(true);
       
@@ -87,7 +90,7 @@ const Checkout = () => {
       script.onload = () => {
         const options = {
           key: process.env.REACT_APP_RAZORPAY_KEY_ID || 'rzp_test_1DP5mmOlF5G5ag',
-          amount: Math.round(total * 100), // Amount in paise
+          amount: Math.round(amount * 100), // Amount in paise
           currency: 'INR',
           name: 'ShoeStop',
           description: 'Order Payment',
@@ -379,7 +382,7 @@ const Checkout = () => {
 
                 <button
                   type="submit"
-                  disabled={isProcessingPayment}
+                  disabled={isProcessingPayment || !summary}
                   className="w-full mt-6 bg-primary-600 text-white py-3 px-4 rounded-lg font-semibold hover:bg-primary-700 transition-colors disabled:opacity-50 disabled:cursor-not-allowed"
                 >
                   {isProcessingPayment ? 'Processing...' : 'Place Order'}
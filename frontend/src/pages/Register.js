@@ -1,10 +1,41 @@
-import React, { useState } from 'react';
+import React, { useState, useEffect } from 'react';
 import { Link, useNavigate } from 'react-router-dom';
 import { useDispatch, useSelector } from 'react-redux';
 import { useForm } from 'react-hook-form';
 import { register as registerUser } from '../store/slices/authSlice';
+import { authService } from '../services/authService';
 import { Eye, EyeOff, Mail, Lock, User, Phone } from 'lucide-react';
 
+const EMAIL_PATTERN = /^[A-Z0-9._%+-]+@[A-Z0-9.-]+\.[A-Z]{2,}$/i;
+
+// Asks the server whether a username or email is free once the user pauses typing
+const useAvailability = (field, value, isCheckable) => {
+  const [available, setAvailable] = useState(undefined);
+
+  useEffect(() => {
+    setAvailable(undefined);
+    if (!value || !isCheckable(value)) {
+      return undefined;
+    }
+    let cancelled = false;
+    const timer = setTimeout(() => {
+      authService.checkAvailability({ [field]: value })
+        .then((result) => {
+          if (!cancelled) {
+            setAvailable(result[field]);
+          }
+        })
+        .catch(() => {});
+    }, 400);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [field, value]); // eslint-disable-line react-hooks/exhaustive-deps
+
+  return available;
+};
+
 const Register = () => {
   const [showPassword, setShowPassword] = useState(false);
   const dispatch = useDispatch();
@@ -19,6 +50,8 @@ const Register = () => {
   } = useForm();
 
   const password = watch('password');
+  const usernameAvailable = useAvailability('username', watch('username'), (value) => value.length >= 3);
+  const emailAvailable = useAvailability('email', watch('email'), (value) => EMAIL_PATTERN.test(value));
 
   const onSubmit = async (data) => {
     try {
@@ -111,6 +144,9 @@ const Register = () => {
               {errors.username && (
                 <p className="mt-1 text-sm text-red-600">{errors.username.message}</p>
               )}
+              {!errors.username && usernameAvailable === false && (
+                <p className="mt-1 text-sm text-red-600">Username is already taken</p>
+              )}
             </div>
 
             <div>
@@ -122,7 +158,7 @@ const Register = () => {
                   {...register('email', { 
                     required: 'Email is required',
                     pattern: {
-                      value: /^[A-Z0-9._%+-]+@[A-Z0-9.-]+\.[A-Z]{2,}$/i,
+                      value: EMAIL_PATTERN,
                       message: 'Invalid email address'
                     }
                   })}
@@ -135,6 +171,9 @@ const Register = () => {
               {errors.email && (
                 <p className="mt-1 text-sm text-red-600">{errors.email.message}</p>
               )}
+              {!errors.email && emailAvailable === false && (
+                <p className="mt-1 text-sm text-red-600">Email is already registered</p>
+              )}
             </div>
 
             <div>
@@ -1,8 +1,12 @@
 import api from './api';
+import { guestCartService } from './guestCartService';
 
 export const authService = {
   login: async (credentials) => {
-    const response = await api.post('/auth/signin', credentials);
+    const cartToken = guestCartService.getToken();
+    const response = await api.post('/auth/signin', { ...credentials, cartToken });
+    // The server merged the guest cart into the user's cart
+    guestCartService.clearToken();
     return response.data;
   },
 
@@ -11,8 +15,21 @@ export const authService = {
     return response.data;
   },
 
+  checkAvailability: async ({ username, email }) => {
+    const response = await api.get('/auth/available', { params: { username, email } });
+    return response.data;
+  },
+
   logout: () => {
+    const token = localStorage.getItem('token');
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshToken) {
+      // Revoke on the server in the background; local sign-out does not wait for it
+      api.post('/auth/logout', { refreshToken }, { headers: { Authorization: `Bearer ${token}` } })
+        .catch(() => {});
+    }
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
   },
 
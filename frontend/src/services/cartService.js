@@ -6,6 +6,11 @@ export const cartService = {
     return response.data;
   },
 
+  getSummary: async () => {
+    const response = await api.get('/cart/summary');
+    return response.data;
+  },
+
   addToCart: async (productId, quantity) => {
     const response = await api.post('/cart/add', { productId, quantity });
     return response.data;
@@ -21,6 +26,11 @@ export const cartService = {
     return response.data;
   },
 
+  applyBatch: async (operations) => {
+    const response = await api.post('/cart/batch', { operations });
+    return response.data;
+  },
+
   clearCart: async () => {
     const response = await api.delete('/cart/clear');
     return response.data;
@@ -0,0 +1,52 @@
+import api from './api';
+
+const CART_TOKEN_KEY = 'cartToken';
+
+const ensureToken = async () => {
+  let token = localStorage.getItem(CART_TOKEN_KEY);
+  if (!token) {
+    const response = await api.post('/guest-cart');
+    token = response.data.cartToken;
+    localStorage.setItem(CART_TOKEN_KEY, token);
+  }
+  return token;
+};
+
+const withToken = (token) => ({ headers: { 'X-Cart-Token': token } });
+
+export const guestCartService = {
+  getToken: () => {
+    return localStorage.getItem(CART_TOKEN_KEY);
+  },
+
+  clearToken: () => {
+    localStorage.removeItem(CART_TOKEN_KEY);
+  },
+
+  getCartItems: async () => {
+    const token = localStorage.getItem(CART_TOKEN_KEY);
+    if (!token) {
+      return [];
+    }
+    const response = await api.get('/guest-cart', withToken(token));
+    return response.data;
+  },
+
+  addToCart: async (productId, quantity) => {
+    const token = await ensureToken();
+    const response = await api.post('/guest-cart/add', { productId, quantity }, withToken(token));
+    return response.data;
+  },
+
+  updateCartItem: async (productId, quantity) => {
+    const token = await ensureToken();
+    const response = await api.put(`/guest-cart/${productId}`, { productId, quantity }, withToken(token));
+    return response.data;
+  },
+
+  removeFromCart: async (productId) => {
+    const token = await ensureToken();
+    const response = await api.delete(`/guest-cart/${productId}`, withToken(token));
+    return response.data;
+  }
+};
@@ -60,6 +60,20 @@ export const removeFromCart = createAsyncThunk(
   }
 );
 
+export const applyCartBatch = createAsyncThunk(
+  'cart/applyCartBatch',
+  async (operations, { rejectWithValue }) => {
+    try {
+      const response = await cartService.applyBatch(operations);
+      return response;
+    } catch (error) {
+      const message = error.response?.data?.message || 'Failed to update cart';
+      toast.error(message);
+      return rejectWithValue(message);
+    }
+  }
+);
+
 export const clearCart = createAsyncThunk(
   'cart/clearCart',
   async (_, { rejectWithValue }) => {
@@ -79,6 +93,8 @@ const cartSlice = createSlice({
   name: 'cart',
   initialState: {
     items: [],
+    // Server quantities of items edited optimistically, restored if the batch is rejected
+    confirmedQuantities: {},
     loading: false,
     error: null,
   },
@@ -86,6 +102,15 @@ const cartSlice = createSlice({
     clearError: (state) => {
       state.error = null;
     },
+    setItemQuantity: (state, action) => {
+      const item = state.items.find(item => item.id === action.payload.cartItemId);
+      if (item) {
+        if (!(item.id in state.confirmedQuantities)) {
+          state.confirmedQuantities[item.id] = item.quantity;
+        }
+        item.quantity = action.payload.quantity;
+      }
+    },
   },
   extraReducers: (builder) => {
     builder
@@ -96,6 +121,7 @@ const cartSlice = createSlice({
       .addCase(fetchCartItems.fulfilled, (state, action) => {
         state.loading = false;
         state.items = action.payload;
+        state.confirmedQuantities = {};
         state.error = null;
       })
       .addCase(fetchCartItems.rejected, (state, action) => {
@@ -118,13 +144,32 @@ const cartSlice = createSlice({
       })
       .addCase(removeFromCart.fulfilled, (state, action) => {
         state.items = state.items.filter(item => item.id !== action.payload);
+        delete state.confirmedQuantities[action.payload];
+      })
+      .addCase(applyCartBatch.fulfilled, (state, action) => {
+        state.items = action.payload;
+        action.meta.arg.forEach(operation => {
+          delete state.confirmedQuantities[operation.cartItemId];
+        });
+        state.error = null;
+      })
+      .addCase(applyCartBatch.rejected, (state, action) => {
+        action.meta.arg.forEach(operation => {
+          const item = state.items.find(item => item.id === operation.cartItemId);
+          if (item && operation.cartItemId in state.confirmedQuantities) {
+            item.quantity = state.confirmedQuantities[operation.cartItemId];
+          }
+          delete state.confirmedQuantities[operation.cartItemId];
+        });
+        state.error = action.payload;
       })
       .addCase(clearCart.fulfilled, (state) => {
         state.items = [];
+        state.confirmedQuantities = {};
       });
   },
 });
 
-export const { clearError } = cartSlice.actions;
+export const { clearError, setItemQuantity } = cartSlice.actions;
 export default cartSlice.reducer;
 